@@ -0,0 +1,368 @@
+package com.terraforged.cereal.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a DataSpec subclass for each class annotated with GenerateSpec, and lists them in
+ * META-INF/services/com.terraforged.cereal.spec.DataSpec so that they can be found with
+ * DataSpecs.registerGenerated(ClassLoader).
+ */
+@SupportedAnnotationTypes({SpecProcessor.GENERATE_SPEC, SpecProcessor.SPEC_KEY})
+public class SpecProcessor extends AbstractProcessor {
+
+    static final String GENERATE_SPEC = "com.terraforged.cereal.spec.GenerateSpec";
+    static final String SPEC_KEY = "com.terraforged.cereal.spec.SpecKey";
+    static final String SERVICE = "META-INF/services/com.terraforged.cereal.spec.DataSpec";
+
+    private final Set<String> generated = new TreeSet<>();
+    private final List<Element> origins = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        // SpecKey is claimed too but only read while generating the spec of its field's class
+        for (TypeElement annotation : annotations) {
+            if (annotation.getQualifiedName().contentEquals(GENERATE_SPEC)) {
+                for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                    generate(element);
+                }
+            }
+        }
+
+        if (round.processingOver() && !generated.isEmpty()) {
+            writeServices();
+        }
+        return true;
+    }
+
+    private void generate(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            error("@GenerateSpec can only be applied to classes", element);
+            return;
+        }
+
+        TypeElement type = (TypeElement) element;
+        Spec spec = spec(type);
+        if (spec == null) {
+            return;
+        }
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(spec.getQualifiedName(), type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(new SpecWriter(spec).write());
+            }
+            generated.add(spec.getQualifiedName());
+            origins.add(type);
+        } catch (IOException e) {
+            error("Failed to write " + spec.getQualifiedName() + ": " + e.getMessage(), type);
+        }
+    }
+
+    private void writeServices() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE, origins.toArray(new Element[0]));
+            try (Writer writer = file.openWriter()) {
+                for (String name : generated) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE + ": " + e.getMessage());
+        }
+    }
+
+    // returns null if the class can't have a spec generated, having reported why
+    private Spec spec(TypeElement type) {
+        boolean valid = true;
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || type.getModifiers().contains(Modifier.PRIVATE)) {
+            valid = error("@GenerateSpec classes must be concrete and non-private", type);
+        }
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+            valid = error("@GenerateSpec classes must be top-level or static", type);
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            valid = error("@GenerateSpec classes can't be generic", type);
+        }
+        if (!hasConstructor(type)) {
+            valid = error("@GenerateSpec classes need a non-private no-args constructor", type);
+        }
+
+        List<Field> fields = new ArrayList<>();
+        for (VariableElement element : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+                valid = error("Serialized fields must be non-private and non-final", element);
+                continue;
+            }
+
+            Field field = field(element);
+            if (field == null) {
+                valid = error("Unsupported field type: " + element.asType(), element);
+                continue;
+            }
+            fields.add(field);
+        }
+
+        if (!valid) {
+            return null;
+        }
+
+        String name = annotationValue(type, GENERATE_SPEC);
+        return new Spec(type, processingEnv.getElementUtils().getPackageOf(type), name, fields);
+    }
+
+    private Field field(VariableElement element) {
+        String key = annotationValue(element, SPEC_KEY);
+        if (key.isEmpty()) {
+            key = element.getSimpleName().toString();
+        }
+
+        String name = element.getSimpleName().toString();
+        TypeMirror type = element.asType();
+        Kind kind = kind(type);
+        if (kind != null) {
+            return new Field(name, key, kind, type.toString(), erasure(type), null);
+        }
+
+        if (!isType(type, "java.util.List")) {
+            return null;
+        }
+
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() != 1) {
+            return null;
+        }
+
+        TypeMirror argument = arguments.get(0);
+        if (argument.getKind() == TypeKind.WILDCARD) {
+            argument = ((WildcardType) argument).getExtendsBound();
+            if (argument == null) {
+                return null;
+            }
+        }
+
+        Kind elementKind = kind(argument);
+        if (elementKind == null || elementKind.isPrimitive() || elementKind == Kind.ENUM) {
+            return null;
+        }
+        Field elementField = new Field(name, key, elementKind, argument.toString(), erasure(argument), null);
+        return new Field(name, key, elementKind == Kind.OBJECT ? Kind.LIST : Kind.VALUE_LIST, type.toString(), erasure(type), elementField);
+    }
+
+    // the kind of a non-list field, or null if it isn't supported
+    private Kind kind(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return Kind.BOOLEAN;
+            case BYTE:
+                return Kind.BYTE;
+            case SHORT:
+                return Kind.SHORT;
+            case INT:
+                return Kind.INT;
+            case LONG:
+                return Kind.LONG;
+            case FLOAT:
+                return Kind.FLOAT;
+            case DOUBLE:
+                return Kind.DOUBLE;
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.Boolean":
+                return Kind.BOXED_BOOLEAN;
+            case "java.lang.Byte":
+                return Kind.BOXED_BYTE;
+            case "java.lang.Short":
+                return Kind.BOXED_SHORT;
+            case "java.lang.Integer":
+                return Kind.BOXED_INT;
+            case "java.lang.Long":
+                return Kind.BOXED_LONG;
+            case "java.lang.Float":
+                return Kind.BOXED_FLOAT;
+            case "java.lang.Double":
+                return Kind.BOXED_DOUBLE;
+            case "java.lang.String":
+                return Kind.STRING;
+            default:
+                break;
+        }
+
+        if (element.getKind() == ElementKind.ENUM) {
+            return Kind.ENUM;
+        }
+        if (element.getKind() != ElementKind.CLASS || !element.getTypeParameters().isEmpty() || isSubtype(type, "java.lang.Iterable") || isSubtype(type, "java.util.Map")) {
+            return null;
+        }
+        return Kind.OBJECT;
+    }
+
+    private boolean hasConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isType(TypeMirror type, String name) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private boolean isSubtype(TypeMirror type, String name) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(name);
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(element.asType());
+        return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), erased);
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String annotationValue(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        return entry.getValue().getValue().toString();
+                    }
+                }
+            }
+        }
+        return "";
+    }
+
+    private boolean error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    enum Kind {
+        BOOLEAN("boolean", "asBool"),
+        BYTE("byte", "asByte"),
+        SHORT("short", "asInt"),
+        INT("int", "asInt"),
+        LONG("long", "asLong"),
+        FLOAT("float", "asFloat"),
+        DOUBLE("double", "asDouble"),
+        BOXED_BOOLEAN("boolean", "asBool"),
+        BOXED_BYTE("byte", "asByte"),
+        BOXED_SHORT("short", "asInt"),
+        BOXED_INT("int", "asInt"),
+        BOXED_LONG("long", "asLong"),
+        BOXED_FLOAT("float", "asFloat"),
+        BOXED_DOUBLE("double", "asDouble"),
+        STRING("String", "asString"),
+        ENUM("", "asString"),
+        OBJECT("", ""),
+        LIST("", ""),
+        VALUE_LIST("", ""),
+        ;
+
+        final String primitive;
+        final String accessor;
+
+        Kind(String primitive, String accessor) {
+            this.primitive = primitive;
+            this.accessor = accessor;
+        }
+
+        boolean isPrimitive() {
+            return ordinal() <= DOUBLE.ordinal();
+        }
+
+        boolean isBoxed() {
+            return ordinal() >= BOXED_BOOLEAN.ordinal() && ordinal() <= BOXED_DOUBLE.ordinal();
+        }
+    }
+
+    static class Field {
+
+        final String name;
+        final String key;
+        final Kind kind;
+        final String type;
+        final String rawType;
+        // the element type of LIST and VALUE_LIST fields
+        final Field element;
+
+        Field(String name, String key, Kind kind, String type, String rawType, Field element) {
+            this.name = name;
+            this.key = key;
+            this.kind = kind;
+            this.type = type;
+            this.rawType = rawType;
+            this.element = element;
+        }
+    }
+
+    static class Spec {
+
+        final TypeElement type;
+        final String packageName;
+        final String typeName;
+        final String className;
+        final String specName;
+        final List<Field> fields;
+
+        Spec(TypeElement type, PackageElement pkg, String name, List<Field> fields) {
+            String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+            String typeName = type.getQualifiedName().toString();
+            String relative = packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1);
+            this.type = type;
+            this.packageName = packageName;
+            this.typeName = typeName;
+            this.className = relative.replace('.', '_') + "DataSpec";
+            this.specName = name.isEmpty() ? type.getSimpleName().toString() : name;
+            this.fields = fields;
+        }
+
+        String getQualifiedName() {
+            return packageName.isEmpty() ? className : packageName + "." + className;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.terraforged.cereal.processor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes the source of a generated spec. For a class 'Point' the output is a 'PointDataSpec' that extends
+ * DataSpec and implements DataBinder, with one straight-line statement per field in each of serialize (to a
+ * DataObject and to a DataWriter), deserialize and the binding's set method.
+ */
+class SpecWriter {
+
+    private final SpecProcessor.Spec spec;
+    private final String type;
+    private final String[] readers;
+    private final StringBuilder out = new StringBuilder(4096);
+    private int indent = 0;
+
+    SpecWriter(SpecProcessor.Spec spec) {
+        this.spec = spec;
+        this.type = spec.typeName;
+        this.readers = new String[spec.fields.size()];
+
+        // each field is read from a DataValue by its own static method
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < readers.length; i++) {
+            String name = spec.fields.get(i).name;
+            String reader = "read" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            while (!names.add(reader)) {
+                reader += "_";
+            }
+            readers[i] = reader;
+        }
+    }
+
+    String write() {
+        if (!spec.packageName.isEmpty()) {
+            line("package " + spec.packageName + ";");
+            line();
+        }
+        line("import com.terraforged.cereal.Cereal;");
+        line("import com.terraforged.cereal.serial.DataWriter;");
+        line("import com.terraforged.cereal.spec.Context;");
+        line("import com.terraforged.cereal.spec.DataBinder;");
+        line("import com.terraforged.cereal.spec.DataBinding;");
+        line("import com.terraforged.cereal.spec.DataSpec;");
+        line("import com.terraforged.cereal.spec.DataSpecs;");
+        line("import com.terraforged.cereal.spec.DefaultData;");
+        line("import com.terraforged.cereal.spec.TypeStrategy;");
+        line("import com.terraforged.cereal.value.DataList;");
+        line("import com.terraforged.cereal.value.DataObject;");
+        line("import com.terraforged.cereal.value.DataValue;");
+        line();
+        line("import java.io.IOException;");
+        line("import java.util.ArrayList;");
+        line("import java.util.LinkedHashMap;");
+        line("import java.util.List;");
+        line("import java.util.Map;");
+        line();
+        line("/**");
+        line(" * Generated by the cereal annotation processor from {@link " + type + "}.");
+        line(" */");
+        open("public final class " + spec.className + " extends DataSpec<" + type + "> implements DataBinder<" + type + ">");
+        line();
+        line("public static final String NAME = " + literal(spec.specName) + ";");
+        line();
+        line("// a default-constructed instance, used for the default value of each field");
+        line("private static final " + type + " DEFAULTS = new " + type + "();");
+        line();
+        open("public " + spec.className + "()");
+        line("super(NAME, " + type + ".class, defaults());");
+        close();
+        line();
+        open("public static " + spec.className + " register()");
+        line(spec.className + " spec = new " + spec.className + "();");
+        line("DataSpecs.register(spec);");
+        line("return spec;");
+        close();
+        line();
+        writeBinder();
+        line();
+        writeSerialize();
+        line();
+        writeStreamingSerialize();
+        line();
+        writeDeserialize();
+        line();
+        writeDefaults();
+        for (int i = 0; i < readers.length; i++) {
+            line();
+            writeReader(spec.fields.get(i), readers[i]);
+        }
+        line();
+        writeBinding();
+        close();
+        return out.toString();
+    }
+
+    private void writeBinder() {
+        line("@Override");
+        open("public DataBinder<" + type + "> getBinder()");
+        line("return this;");
+        close();
+        line();
+        line("@Override");
+        open("public DataBinding<" + type + "> begin(DataSpec<" + type + "> spec, Context context)");
+        line("return new Binding(context);");
+        close();
+    }
+
+    private void writeSerialize() {
+        line("@Override");
+        open("public DataValue serialize(Object value, Context context)");
+        open("if (!(value instanceof " + type + "))");
+        line("return DataValue.NULL;");
+        close();
+        line(type + " t = (" + type + ") value;");
+        line("boolean skipDefaults = context.skipDefaults();");
+        line("DataObject data = new DataObject(NAME, " + spec.fields.size() + ");");
+        for (SpecProcessor.Field field : spec.fields) {
+            open("if (" + condition(field) + ")");
+            line("data.add(" + literal(field.key) + ", " + toData(field, "t." + field.name) + ");");
+            close();
+        }
+        line("return data;");
+        close();
+    }
+
+    private void writeStreamingSerialize() {
+        line("@Override");
+        open("public void serialize(Object value, DataWriter writer, Context context) throws IOException");
+        open("if (!(value instanceof " + type + "))");
+        line("return;");
+        close();
+        line(type + " t = (" + type + ") value;");
+        line("boolean skipDefaults = context.skipDefaults();");
+        line("writer.type(NAME);");
+        line("writer.beginObj();");
+        for (SpecProcessor.Field field : spec.fields) {
+            String f = "t." + field.name;
+            switch (field.kind) {
+                case OBJECT:
+                case LIST:
+                case VALUE_LIST:
+                    open("if (" + condition(field) + " && Cereal.isSerializable(" + f + ", context))");
+                    line("writer.name(" + literal(field.key) + ");");
+                    line("Cereal.serialize(" + f + ", writer, context);");
+                    close();
+                    break;
+                default:
+                    open("if (" + condition(field) + ")");
+                    line("writer.name(" + literal(field.key) + ").value(" + unboxed(field, f) + ");");
+                    close();
+            }
+        }
+        line("writer.endObj();");
+        close();
+    }
+
+    private void writeDeserialize() {
+        line("@Override");
+        open("public " + type + " deserialize(DataObject data, Context context)");
+        line(type + " t = new " + type + "();");
+        for (int i = 0; i < readers.length; i++) {
+            line(readers[i] + "(t, data.get(" + literal(spec.fields.get(i).key) + "), context);");
+        }
+        line("return t;");
+        close();
+    }
+
+    private void writeDefaults() {
+        open("private static Map<String, DefaultData> defaults()");
+        line("Map<String, DefaultData> defaults = new LinkedHashMap<>();");
+        for (SpecProcessor.Field field : spec.fields) {
+            String key = literal(field.key);
+            String f = "DEFAULTS." + field.name;
+            switch (field.kind) {
+                case OBJECT:
+                    line("defaults.put(" + key + ", new DefaultData(" + field.rawType + ".class, DataObject.NULL_OBJ));");
+                    break;
+                case LIST:
+                    line("defaults.put(" + key + ", new DefaultData(" + field.element.rawType + ".class, DataList.NULL_LIST));");
+                    break;
+                case VALUE_LIST:
+                    line("defaults.put(" + key + ", new DefaultData(DataList.NULL_LIST));");
+                    break;
+                default:
+                    if (field.kind.isPrimitive()) {
+                        line("defaults.put(" + key + ", new DefaultData(" + toData(field, f) + "));");
+                    } else {
+                        line("defaults.put(" + key + ", new DefaultData(" + f + " == null ? DataValue.NULL : " + toData(field, f) + "));");
+                    }
+            }
+        }
+        line("return defaults;");
+        close();
+    }
+
+    private void writeReader(SpecProcessor.Field field, String name) {
+        String f = "t." + field.name;
+        open("private static void " + name + "(" + type + " t, DataValue value, Context context)");
+        switch (field.kind) {
+            case OBJECT:
+                open("if (value.isObj())");
+                line(f + " = Cereal.deserialize(value.asObj(), " + field.rawType + ".class, context);");
+                close();
+                break;
+            case LIST:
+                open("if (value.isList())");
+                line(f + " = Cereal.deserialize(value.asList(), " + field.element.rawType + ".class, context);");
+                close();
+                break;
+            case VALUE_LIST:
+                open("if (value.isList())");
+                line("List<" + field.element.type + "> list = new ArrayList<>(value.asList().size());");
+                open("for (DataValue element : value.asList())");
+                line("list.add(" + fromData(field.element, "element") + ");");
+                close();
+                line(f + " = list;");
+                close();
+                break;
+            case ENUM:
+                // an unknown constant leaves the field at its default, as with TypeStrategy/DataSpec.derive
+                open("if (value.isNonNull())");
+                line("String name = value.asString();");
+                open("for (" + field.rawType + " constant : TypeStrategy.of(" + field.rawType + ".class, context).<" + field.rawType + ">getEnumConstants())");
+                open("if (constant.name().equals(name))");
+                line(f + " = constant;");
+                line("break;");
+                close();
+                close();
+                close();
+                break;
+            default:
+                open("if (value.isNonNull())");
+                line(f + " = " + fromData(field, "value") + ";");
+                close();
+        }
+        close();
+    }
+
+    private void writeBinding() {
+        open("private static final class Binding implements DataBinding<" + type + ">");
+        line();
+        line("private final " + type + " t = new " + type + "();");
+        line("private final Context context;");
+        line();
+        open("private Binding(Context context)");
+        line("this.context = context;");
+        close();
+        line();
+        line("@Override");
+        line("@SuppressWarnings(\"unchecked\")");
+        open("public void set(String key, Object value)");
+        open("switch (key)");
+        for (int i = 0; i < readers.length; i++) {
+            SpecProcessor.Field field = spec.fields.get(i);
+            line("case " + literal(field.key) + ":");
+            indent++;
+            // fields declared with a type (objects and lists of objects) are handed over already deserialized
+            switch (field.kind) {
+                case OBJECT:
+                    open("if (value instanceof " + field.rawType + ")");
+                    line("t." + field.name + " = (" + field.rawType + ") value;");
+                    close();
+                    break;
+                case LIST:
+                    open("if (value instanceof List)");
+                    line("t." + field.name + " = (" + field.type + ") value;");
+                    close();
+                    break;
+                default:
+                    open("if (value instanceof DataValue)");
+                    line(readers[i] + "(t, (DataValue) value, context);");
+                    close();
+            }
+            line("break;");
+            indent--;
+        }
+        line("default:");
+        line("    break;");
+        close();
+        close();
+        line();
+        line("@Override");
+        open("public " + type + " build()");
+        line("return t;");
+        close();
+        close();
+    }
+
+    // whether the field is written, given 't', 'skipDefaults' and 'DEFAULTS'
+    private static String condition(SpecProcessor.Field field) {
+        String f = "t." + field.name;
+        String d = "DEFAULTS." + field.name;
+        switch (field.kind) {
+            case FLOAT:
+                return "!skipDefaults || Float.compare(" + f + ", " + d + ") != 0";
+            case DOUBLE:
+                return "!skipDefaults || Double.compare(" + f + ", " + d + ") != 0";
+            case OBJECT:
+                return f + " != null";
+            case ENUM:
+                return f + " != null && (!skipDefaults || " + f + " != " + d + ")";
+            default:
+                if (field.kind.isPrimitive()) {
+                    return "!skipDefaults || " + f + " != " + d;
+                }
+                return f + " != null && (!skipDefaults || !" + f + ".equals(" + d + "))";
+        }
+    }
+
+    // the DataValue of the (non-null) field value 'f'
+    private static String toData(SpecProcessor.Field field, String f) {
+        switch (field.kind) {
+            case OBJECT:
+            case LIST:
+            case VALUE_LIST:
+                return "Cereal.serialize(" + f + ", context)";
+            default:
+                return "DataValue.of(" + unboxed(field, f) + ")";
+        }
+    }
+
+    // the field as a value accepted by DataValue.of and DataWriter.value overloads
+    private static String unboxed(SpecProcessor.Field field, String f) {
+        switch (field.kind) {
+            case ENUM:
+                return f + ".name()";
+            case BOXED_BYTE:
+            case BOXED_SHORT:
+            case BOXED_INT:
+            case BOXED_LONG:
+                return f + ".longValue()";
+            case BOXED_FLOAT:
+                return f + ".floatValue()";
+            case BOXED_DOUBLE:
+                return f + ".doubleValue()";
+            case BOXED_BOOLEAN:
+                return f + ".booleanValue()";
+            default:
+                return f;
+        }
+    }
+
+    // converts the DataValue 'value' to the field's type
+    private static String fromData(SpecProcessor.Field field, String value) {
+        switch (field.kind) {
+            case SHORT:
+            case BOXED_SHORT:
+                return "(short) " + value + ".asInt()";
+            default:
+                return value + "." + field.kind.accessor + "()";
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void open(String line) {
+        line(line + " {");
+        indent++;
+    }
+
+    private void close() {
+        indent--;
+        line("}");
+    }
+
+    private void line() {
+        out.append('\n');
+    }
+
+    private void line(String line) {
+        for (int i = 0; i < indent; i++) {
+            out.append("    ");
+        }
+        out.append(line).append('\n');
+    }
+}
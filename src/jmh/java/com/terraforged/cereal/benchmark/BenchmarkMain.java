@@ -0,0 +1,116 @@
+package com.terraforged.cereal.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the benchmarks with the GC profiler attached and prints how each benchmark scales with document size.
+ * The 'scale' column is the growth in time per op relative to the growth in size since the previous row - a
+ * value near 1.0 is linear, anything noticeably above it points at super-linear behaviour.
+ *
+ * Usage: BenchmarkMain [include-regex] [results.json]
+ */
+public class BenchmarkMain {
+
+    private static final String SIZE = "size";
+    private static final String ALLOC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        String results = args.length > 1 ? args[1] : "build/reports/jmh/results.json";
+
+        File parent = new File(results).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new RuntimeException("Unable to create directory: " + parent);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(BenchmarkMain.class.getPackage().getName() + ".*" + include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results)
+                .build();
+
+        report(new Runner(options).run());
+    }
+
+    private static void report(Collection<RunResult> results) {
+        Map<String, List<RunResult>> groups = new TreeMap<>();
+        for (RunResult result : results) {
+            groups.computeIfAbsent(groupOf(result.getParams()), k -> new ArrayList<>()).add(result);
+        }
+
+        System.out.println();
+        System.out.printf("%-60s %10s %14s %14s %14s %8s%n", "Benchmark", "Size", "Score", "Score/size", "Alloc B/op", "Scale");
+        for (Map.Entry<String, List<RunResult>> group : groups.entrySet()) {
+            List<RunResult> rows = group.getValue();
+            rows.sort(Comparator.comparingInt(r -> sizeOf(r.getParams())));
+
+            RunResult previous = null;
+            for (RunResult row : rows) {
+                int size = sizeOf(row.getParams());
+                Result<?> primary = row.getPrimaryResult();
+                double score = primary.getScore();
+                String scale = "";
+                if (previous != null && size > 0) {
+                    double growth = score / previous.getPrimaryResult().getScore();
+                    double sizeGrowth = size / (double) sizeOf(previous.getParams());
+                    scale = String.format("%.2f", growth / sizeGrowth);
+                }
+                System.out.printf("%-60s %10s %10.3f %-3s %14s %14s %8s%n",
+                        group.getKey(),
+                        size > 0 ? size : "-",
+                        score,
+                        primary.getScoreUnit().split("/")[0],
+                        size > 0 ? String.format("%.5f", score / size) : "-",
+                        allocOf(row),
+                        scale
+                );
+                previous = row;
+            }
+        }
+    }
+
+    private static String groupOf(BenchmarkParams params) {
+        // ClassName.method
+        String name = params.getBenchmark();
+        int start = name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1;
+        StringBuilder sb = new StringBuilder(name.substring(start));
+        for (String key : params.getParamsKeys()) {
+            if (!key.equals(SIZE)) {
+                sb.append(' ').append(key).append('=').append(params.getParam(key));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int sizeOf(BenchmarkParams params) {
+        String size = params.getParam(SIZE);
+        return size == null ? 0 : Integer.parseInt(size);
+    }
+
+    private static String allocOf(RunResult result) {
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            // older JMH versions prefix profiler results with a separator char
+            if (entry.getKey().endsWith(ALLOC)) {
+                return String.format("%.0f", entry.getValue().getScore());
+            }
+        }
+        return "-";
+    }
+}
@@ -0,0 +1,89 @@
+package com.terraforged.cereal.benchmark;
+
+import com.terraforged.cereal.serial.DataWriter;
+import com.terraforged.cereal.value.DataList;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * Generates reproducible documents of a given size (number of primitive values) and depth (levels of nested
+ * objects below the root) so that benchmark results can be compared across sizes.
+ */
+final class Documents {
+
+    static final long SEED = 8008135L;
+
+    private static final String[] KEYS = {"name", "seed", "scale", "enabled", "offset", "frequency", "mode"};
+    private static final String[] NAMES = {"perlin", "simplex", "cellular", "billow", "ridge", "cubic"};
+
+    private Documents() {
+
+    }
+
+    static DataObject tree(int size, int depth) {
+        int branches = branches(size, depth);
+        return object(new Random(SEED), new int[]{size}, depth, branches);
+    }
+
+    static String text(DataValue value) {
+        try {
+            StringWriter writer = new StringWriter();
+            new DataWriter(writer).write(value);
+            return writer.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the number of children per object required for 'size' values to reach the given depth
+    static int branches(int size, int depth) {
+        if (depth == 0) {
+            return 0;
+        }
+        double objects = Math.max(1, size / (double) (KEYS.length + 4));
+        return Math.max(2, (int) Math.ceil(Math.pow(objects, 1.0 / depth)));
+    }
+
+    private static DataObject object(Random random, int[] budget, int depth, int branches) {
+        DataObject object = new DataObject();
+        for (int i = 0; i < KEYS.length && budget[0] > 0; i++, budget[0]--) {
+            object.add(KEYS[i], value(random, i));
+        }
+
+        if (budget[0] > 0) {
+            DataList samples = new DataList();
+            for (int i = 0; i < 4 && budget[0] > 0; i++, budget[0]--) {
+                samples.add(random.nextDouble());
+            }
+            object.add("samples", samples);
+        }
+
+        if (depth > 0 && budget[0] > 0) {
+            DataList children = new DataList();
+            for (int i = 0; i < branches && budget[0] > 0; i++) {
+                children.add(object(random, budget, depth - 1, branches));
+            }
+            object.add("children", children);
+        }
+
+        return object;
+    }
+
+    private static Object value(Random random, int index) {
+        switch (index % 4) {
+            case 0:
+                return NAMES[random.nextInt(NAMES.length)];
+            case 1:
+                return random.nextInt(100_000);
+            case 2:
+                return random.nextDouble() * 100;
+            default:
+                return random.nextBoolean();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.terraforged.cereal.benchmark;
+
+import com.terraforged.cereal.spec.DataSpec;
+import com.terraforged.cereal.spec.DataSpecs;
+import com.terraforged.cereal.value.DataValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A spec-backed object graph mirroring the shape of the documents produced by {@link Documents}.
+ */
+public class Model {
+
+    public String name = "";
+    public int seed = 0;
+    public double scale = 1.0;
+    public boolean enabled = true;
+    public List<Model> children = new ArrayList<>();
+
+    static final DataSpec<Model> SPEC = DataSpec.builder("Model", Model.class, (data, spec, context) -> {
+        Model model = new Model();
+        model.name = spec.get("name", data, DataValue::asString);
+        model.seed = spec.get("seed", data, DataValue::asInt);
+        model.scale = spec.get("scale", data, DataValue::asDouble);
+        model.enabled = spec.get("enabled", data, DataValue::asBool);
+        model.children = spec.getList("children", data, Model.class, context);
+        return model;
+    })
+            .add("name", "", m -> m.name)
+            .add("seed", 0, m -> m.seed)
+            .add("scale", 1.0, m -> m.scale)
+            .add("enabled", true, m -> m.enabled)
+            .addList("children", Model.class, m -> m.children)
+            .build();
+
+    static void register() {
+        DataSpecs.register(SPEC);
+    }
+
+    static Model graph(int size, int depth) {
+        int branches = Documents.branches(size, depth);
+        return node(new Random(Documents.SEED), new int[]{size}, depth, branches);
+    }
+
+    private static Model node(Random random, int[] budget, int depth, int branches) {
+        Model model = new Model();
+        model.name = "node" + random.nextInt(64);
+        model.seed = random.nextInt(100_000);
+        model.scale = random.nextDouble();
+        model.enabled = random.nextBoolean();
+        budget[0] -= 4;
+
+        if (depth > 0) {
+            for (int i = 0; i < branches && budget[0] > 0; i++) {
+                model.children.add(node(random, budget, depth - 1, branches));
+            }
+        }
+
+        return model;
+    }
+}
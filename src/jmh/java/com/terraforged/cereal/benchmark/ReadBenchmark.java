@@ -0,0 +1,62 @@
+package com.terraforged.cereal.benchmark;
+
+import com.terraforged.cereal.serial.CerealParser;
+import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.value.DataValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = Documents.text(Documents.tree(size, depth));
+    }
+
+    @Benchmark
+    public DataValue readString() throws IOException {
+        return new DataReader(text).read();
+    }
+
+    @Benchmark
+    public DataValue readReader() throws IOException {
+        return new DataReader(new StringReader(text)).read();
+    }
+
+    @Benchmark
+    public int tokens() throws IOException {
+        CerealParser parser = new CerealParser(text);
+        int count = 0;
+        while (parser.nextToken() != CerealParser.Token.END_DOCUMENT) {
+            count++;
+        }
+        return count;
+    }
+}
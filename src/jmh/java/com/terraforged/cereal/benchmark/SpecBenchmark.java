@@ -0,0 +1,78 @@
+package com.terraforged.cereal.benchmark;
+
+import com.terraforged.cereal.Cereal;
+import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.spec.Context;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private Model model;
+    private DataObject tree;
+    private String text;
+
+    @Setup
+    public void setup() throws IOException {
+        Model.register();
+        model = Model.graph(size, depth);
+        tree = Cereal.serialize(model).asObj();
+        text = Documents.text(tree);
+    }
+
+    @Benchmark
+    public DataValue serialize() {
+        return Cereal.serialize(model);
+    }
+
+    @Benchmark
+    public Model deserialize() {
+        return Cereal.deserialize(tree, Model.class, Context.NONE);
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        StringWriter writer = new StringWriter();
+        Cereal.write(model, writer);
+        return writer.getBuffer().length();
+    }
+
+    @Benchmark
+    public Model read() throws IOException {
+        return Cereal.read(new StringReader(text), Model.class);
+    }
+
+    @Benchmark
+    public Model readTree() throws IOException {
+        DataObject data = new DataReader(text).read().asObj();
+        return Cereal.deserialize(data, Model.class, Context.NONE);
+    }
+}
@@ -0,0 +1,143 @@
+package com.terraforged.cereal.benchmark;
+
+import com.terraforged.cereal.spec.Context;
+import com.terraforged.cereal.spec.DataSpec;
+import com.terraforged.cereal.spec.SubSpec;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures polymorphic decoding through a SubSpec. 'named' objects carry the child's type name, 'exact' objects
+ * contain exactly one child's fields and 'partial' objects carry an extra field so the resolver must fall back to
+ * scanning the children.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubSpecBenchmark {
+
+    private static final int BATCH = 64;
+
+    @Param({"named", "exact", "partial"})
+    public String lookup;
+
+    private SubSpec<Shape> subSpec;
+    private DataObject[] batch;
+
+    @Setup
+    public void setup() {
+        subSpec = new SubSpec<>(Shape.class);
+        subSpec.register(Circle.class, spec(Circle.class, "radius"));
+        subSpec.register(Square.class, spec(Square.class, "size"));
+        subSpec.register(Rect.class, spec(Rect.class, "width", "height"));
+        subSpec.register(Ring.class, spec(Ring.class, "outer", "inner"));
+        subSpec.register(Star.class, spec(Star.class, "points", "radius", "inset"));
+        subSpec.register(Arc.class, spec(Arc.class, "start", "angle", "radius"));
+        subSpec.register(Line.class, spec(Line.class, "length", "angle"));
+        subSpec.register(Grid.class, spec(Grid.class, "rows", "columns", "spacing", "offset"));
+
+        String[][] fields = {
+                {"Circle", "radius"},
+                {"Square", "size"},
+                {"Rect", "width", "height"},
+                {"Ring", "outer", "inner"},
+                {"Star", "points", "radius", "inset"},
+                {"Arc", "start", "angle", "radius"},
+                {"Line", "length", "angle"},
+                {"Grid", "rows", "columns", "spacing", "offset"},
+        };
+
+        batch = new DataObject[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            String[] shape = fields[i % fields.length];
+            DataObject data = new DataObject(lookup.equals("named") ? shape[0] : "");
+            for (int j = 1; j < shape.length; j++) {
+                data.add(shape[j], 1.5 * j);
+            }
+            if (lookup.equals("partial")) {
+                data.add("comment", "unknown");
+            }
+            batch[i] = data;
+        }
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole) {
+        for (DataObject data : batch) {
+            blackhole.consume(subSpec.resolve(data));
+        }
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole blackhole) {
+        for (DataObject data : batch) {
+            blackhole.consume(subSpec.deserialize(data, Context.NONE));
+        }
+    }
+
+    private static <T extends Shape> DataSpec<T> spec(Class<T> type, String... keys) {
+        DataSpec.Builder<T> builder = DataSpec.builder(type, (data, spec, context) -> {
+            try {
+                T shape = type.getDeclaredConstructor().newInstance();
+                for (String key : keys) {
+                    shape.set(key, spec.get(key, data, DataValue::asDouble));
+                }
+                return shape;
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        for (String key : keys) {
+            builder.add(key, 1.0, shape -> shape.get(key));
+        }
+        return builder.build();
+    }
+
+    public static abstract class Shape {
+
+        private final Map<String, Double> values = new HashMap<>();
+
+        void set(String key, double value) {
+            values.put(key, value);
+        }
+
+        double get(String key) {
+            return values.getOrDefault(key, 1.0);
+        }
+    }
+
+    public static class Circle extends Shape {}
+
+    public static class Square extends Shape {}
+
+    public static class Rect extends Shape {}
+
+    public static class Ring extends Shape {}
+
+    public static class Star extends Shape {}
+
+    public static class Arc extends Shape {}
+
+    public static class Line extends Shape {}
+
+    public static class Grid extends Shape {}
+}
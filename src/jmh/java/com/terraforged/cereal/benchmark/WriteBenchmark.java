@@ -0,0 +1,99 @@
+package com.terraforged.cereal.benchmark;
+
+import com.terraforged.cereal.serial.DataWriter;
+import com.terraforged.cereal.value.DataObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private DataObject tree;
+
+    @Setup
+    public void setup() {
+        tree = Documents.tree(size, depth);
+    }
+
+    @Benchmark
+    public int writeString() throws IOException {
+        StringWriter writer = new StringWriter();
+        new DataWriter(writer).write(tree);
+        return writer.getBuffer().length();
+    }
+
+    @Benchmark
+    public int writeDiscard() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        new DataWriter(writer).write(tree);
+        return writer.count;
+    }
+
+    // isolates the cost of the DataWriter from the cost of growing the output buffer
+    private static class CountingWriter extends Writer {
+
+        private int count;
+
+        @Override
+        public void write(int c) {
+            count++;
+        }
+
+        @Override
+        public void write(char[] chars, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public Writer append(char c) {
+            count++;
+            return this;
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            count += csq.length();
+            return this;
+        }
+
+        @Override
+        public void flush() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
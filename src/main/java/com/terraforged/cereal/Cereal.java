@@ -1,6 +1,9 @@
 package com.terraforged.cereal;
 
-import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.serial.BinaryDataReader;
+import com.terraforged.cereal.serial.BinaryDataWriter;
+import com.terraforged.cereal.serial.CerealParser;
+import com.terraforged.cereal.serial.DataQuery;
 import com.terraforged.cereal.serial.DataWriter;
 import com.terraforged.cereal.spec.*;
 import com.terraforged.cereal.value.DataList;
@@ -8,33 +11,77 @@ import com.terraforged.cereal.value.DataObject;
 import com.terraforged.cereal.value.DataValue;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Array;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 public class Cereal {
 
     public static <T> T read(Reader reader, Class<T> type) throws IOException {
-        DataValue data = new DataReader(reader).read();
-        return deserialize(data.asObj(), type, Context.NONE);
+        return read(reader, type, Context.NONE);
     }
 
     public static <T> T read(Reader reader, Class<T> type, Context context) throws IOException {
-        DataValue data = new DataReader(reader).read();
-        return deserialize(data.asObj(), type, context);
+        return new BindingReader(new CerealParser(reader)).read(type, context);
     }
 
     public static <T> List<T> readList(Reader reader, Class<T> type) throws IOException {
-        DataValue data = new DataReader(reader).read();
-        return deserialize(data.asList(), type, Context.NONE);
+        return readList(reader, type, Context.NONE);
     }
 
     public static <T> List<T> readList(Reader reader, Class<T> type, Context context) throws IOException {
-        DataValue data = new DataReader(reader).read();
-        return deserialize(data.asList(), type, context);
+        return new BindingReader(new CerealParser(reader)).readList(type, context);
+    }
+
+    /**
+     * Reads the UTF-8 file by memory-mapping it rather than decoding it through a Reader.
+     */
+    public static <T> T read(Path path, Class<T> type) throws IOException {
+        return read(path, type, Context.NONE);
+    }
+
+    public static <T> T read(Path path, Class<T> type, Context context) throws IOException {
+        return new BindingReader(new CerealParser(path)).read(type, context);
+    }
+
+    public static <T> List<T> readList(Path path, Class<T> type) throws IOException {
+        return readList(path, type, Context.NONE);
+    }
+
+    public static <T> List<T> readList(Path path, Class<T> type, Context context) throws IOException {
+        return new BindingReader(new CerealParser(path)).readList(type, context);
+    }
+
+    /**
+     * Reads the value at the dot-separated path (eg "climate.temperature.scale") without materializing the
+     * rest of the document. Returns DataValue.NULL if the path doesn't exist.
+     */
+    public static DataValue query(Reader reader, String path) throws IOException {
+        return new DataQuery(path).get(new CerealParser(reader));
+    }
+
+    public static DataValue query(Path path, String query) throws IOException {
+        return new DataQuery(query).get(new CerealParser(path));
+    }
+
+    /**
+     * Reads the values at each path in a single pass. See {@link DataQuery}.
+     */
+    public static Map<String, DataValue> queryAll(Reader reader, String... paths) throws IOException {
+        return new DataQuery(paths).read(new CerealParser(reader));
+    }
+
+    public static Map<String, DataValue> queryAll(Path path, String... queries) throws IOException {
+        return new DataQuery(queries).read(new CerealParser(path));
     }
 
     public static void write(Object object, Writer writer) throws IOException {
@@ -43,8 +90,7 @@ public class Cereal {
 
     public static void write(Object object, Writer writer, Context context) throws IOException {
         DataWriter dataWriter = new DataWriter(writer);
-        DataValue value = serialize(object, context);
-        dataWriter.write(value);
+        serialize(object, dataWriter, context);
     }
 
     public static void write(Object object, String type, Writer writer) throws IOException {
@@ -53,7 +99,25 @@ public class Cereal {
 
     public static void write(Object object, String type, Writer writer, Context context) throws IOException {
         DataWriter dataWriter = new DataWriter(writer);
-        DataValue value = serialize(type, object, context);
+        serialize(type, object, dataWriter, context);
+    }
+
+    public static <T> T readBinary(InputStream in, Class<T> type) throws IOException {
+        return readBinary(in, type, Context.NONE);
+    }
+
+    public static <T> T readBinary(InputStream in, Class<T> type, Context context) throws IOException {
+        DataValue data = new BinaryDataReader(in).read();
+        return deserialize(data.asObj(), type, context);
+    }
+
+    public static void writeBinary(Object object, OutputStream out) throws IOException {
+        writeBinary(object, out, Context.NONE);
+    }
+
+    public static void writeBinary(Object object, OutputStream out, Context context) throws IOException {
+        BinaryDataWriter dataWriter = new BinaryDataWriter(out);
+        DataValue value = serialize(object, context);
         dataWriter.write(value);
     }
 
@@ -71,13 +135,15 @@ public class Cereal {
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static DataValue serialize(String type, Object value, Context context) {
-        if (DataSpecs.hasSpec(type)) {
-            return DataSpecs.getSpec(type).serialize(value, context);
+        SpecRegistry registry = context.getRegistry();
+        DataSpec<?> spec = registry.findSpec(type);
+        if (spec != null) {
+            return spec.serialize(value, context);
         }
 
-        if (DataSpecs.isSubSpec(value)) {
-            SubSpec spec = DataSpecs.getSubSpec(value);
-            return spec.serialize(value, context);
+        SubSpec subSpec = registry.getSubSpec(value);
+        if (subSpec != null) {
+            return subSpec.serialize(value, context);
         }
 
         return DataValue.of(value, context);
@@ -85,59 +151,391 @@ public class Cereal {
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     private static DataValue serializeInferred(Object value, Context context) {
-        if (value.getClass().isArray()) {
-            int size = Array.getLength(value);
-            DataList list = new DataList();
-            for (int i = 0; i < size; i++) {
-                list.add(serializeInferred(Array.get(value, i), context));
+        TypeStrategy strategy = TypeStrategy.of(value.getClass(), context);
+        switch (strategy.getInferredKind()) {
+            case ARRAY:
+                return serializeArray(value, context);
+            case ITERABLE:
+                return serializeIterable((Iterable<?>) value, context);
+            case MAP: {
+                if (isParallel(((Map<?, ?>) value).size(), context)) {
+                    return serializeMap((Map<?, ?>) value, context);
+                }
+                DataObject object = new DataObject("", ((Map<?, ?>) value).size());
+                for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
+                    if (entry.getKey() instanceof String) {
+                        String key = entry.getKey().toString();
+                        DataValue child = serializeInferred(entry.getValue(), context);
+                        object.add(key, child);
+                    }
+                }
+                return object;
             }
-            return list;
+            case SPEC_NAME: {
+                DataSpec<?> spec = context.getRegistry().findSpec(((SpecName) value).getSpecName());
+                if (spec != null) {
+                    return spec.serialize(value, context);
+                }
+                if (strategy.getSubSpec() != null) {
+                    SubSpec subSpec = strategy.getSubSpec();
+                    return subSpec.serialize(value, context);
+                }
+                return DataValue.of(value, context);
+            }
+            case SUB_SPEC: {
+                SubSpec spec = strategy.getSubSpec();
+                return spec.serialize(value, context);
+            }
+            default:
+                return DataValue.of(value, context);
         }
+    }
 
-        if (value instanceof Iterable) {
-            DataList list = new DataList();
-            for (Object child : (Iterable<?>) value) {
+    private static DataList serializeArray(Object value, Context context) {
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            DataList list = new DataList(array.length);
+            if (isParallel(array.length, context)) {
+                for (DataValue child : Parallel.serialize(array, context)) {
+                    list.add(child);
+                }
+                return list;
+            }
+            for (Object child : array) {
                 list.add(serializeInferred(child, context));
             }
             return list;
         }
 
-        if (value instanceof Map) {
-            DataObject object = new DataObject();
-            for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
-                if (entry.getKey() instanceof String) {
-                    String key = entry.getKey().toString();
-                    DataValue child = serializeInferred(entry.getValue(), context);
-                    object.add(key, child);
+        if (value instanceof int[]) {
+            return DataList.of((int[]) value);
+        }
+
+        if (value instanceof long[]) {
+            return DataList.of((long[]) value);
+        }
+
+        if (value instanceof float[]) {
+            return DataList.of((float[]) value);
+        }
+
+        if (value instanceof double[]) {
+            return DataList.of((double[]) value);
+        }
+
+        if (value instanceof short[]) {
+            return DataList.of((short[]) value);
+        }
+
+        if (value instanceof byte[]) {
+            return DataList.of((byte[]) value);
+        }
+
+        if (value instanceof boolean[]) {
+            boolean[] array = (boolean[]) value;
+            DataList list = new DataList(array.length);
+            for (boolean b : array) {
+                list.add(DataValue.of(b));
+            }
+            return list;
+        }
+
+        int size = Array.getLength(value);
+        DataList list = new DataList(size);
+        for (int i = 0; i < size; i++) {
+            list.add(serializeInferred(Array.get(value, i), context));
+        }
+        return list;
+    }
+
+    private static DataList serializeIterable(Iterable<?> iterable, Context context) {
+        int size = iterable instanceof Collection ? ((Collection<?>) iterable).size() : 16;
+
+        if (iterable instanceof Collection && isParallel(size, context)) {
+            Object[] elements = ((Collection<?>) iterable).toArray();
+            DataList list = createList(elements.length > 0 ? elements[0] : null, elements.length);
+            for (DataValue child : Parallel.serialize(elements, context)) {
+                list.add(child);
+            }
+            return list;
+        }
+
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            List<?> source = (List<?>) iterable;
+            DataList list = createList(size > 0 ? source.get(0) : null, size);
+            for (int i = 0; i < size; i++) {
+                addInferred(list, source.get(i), context);
+            }
+            return list;
+        }
+
+        DataList list = null;
+        for (Object child : iterable) {
+            if (list == null) {
+                list = createList(child, size);
+            }
+            addInferred(list, child, context);
+        }
+        return list == null ? new DataList(0) : list;
+    }
+
+    // serializes the String-keyed entries of the map in parallel, keeping the map's iteration order
+    private static DataObject serializeMap(Map<?, ?> map, Context context) {
+        String[] keys = new String[map.size()];
+        Object[] values = new Object[map.size()];
+        int size = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() instanceof String) {
+                keys[size] = entry.getKey().toString();
+                values[size] = entry.getValue();
+                size++;
+            }
+        }
+
+        DataValue[] children = Parallel.serialize(Arrays.copyOf(values, size), context);
+        DataObject object = new DataObject("", size);
+        for (int i = 0; i < size; i++) {
+            object.add(keys[i], children[i]);
+        }
+        return object;
+    }
+
+    private static boolean isParallel(int size, Context context) {
+        int threshold = context.getParallelThreshold();
+        return threshold > 0 && size >= threshold;
+    }
+
+    // lists whose first element is a boxed primitive number are packed
+    private static DataList createList(Object first, int size) {
+        if (first instanceof Long || first instanceof Integer || first instanceof Double || first instanceof Float) {
+            return DataList.packed();
+        }
+        return new DataList(size);
+    }
+
+    private static void addInferred(DataList list, Object value, Context context) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            list.add(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            list.add(((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            list.add(((Float) value).floatValue());
+        } else {
+            list.add(serializeInferred(value, context));
+        }
+    }
+
+    /**
+     * Writes the value straight to the DataWriter, producing the same output as serialize(value, context)
+     * without building the intermediate DataValue tree.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void serialize(Object value, DataWriter writer, Context context) throws IOException {
+        TypeStrategy strategy = TypeStrategy.of(value.getClass(), context);
+        switch (strategy.getInferredKind()) {
+            case ARRAY:
+                writer.beginList();
+                if (value instanceof Object[] && isParallel(((Object[]) value).length, context)) {
+                    writeAll(Parallel.serialize((Object[]) value, context), writer);
+                } else {
+                    writeArray(value, writer, context);
+                }
+                writer.endList();
+                return;
+            case ITERABLE:
+                writer.beginList();
+                if (value instanceof Collection && isParallel(((Collection<?>) value).size(), context)) {
+                    writeAll(Parallel.serialize(((Collection<?>) value).toArray(), context), writer);
+                } else if (value instanceof List && value instanceof RandomAccess) {
+                    List<?> list = (List<?>) value;
+                    for (int i = 0, size = list.size(); i < size; i++) {
+                        writeElement(list.get(i), writer, context);
+                    }
+                } else {
+                    for (Object child : (Iterable<?>) value) {
+                        writeElement(child, writer, context);
+                    }
+                }
+                writer.endList();
+                return;
+            case MAP:
+                if (isParallel(((Map<?, ?>) value).size(), context)) {
+                    writer.write(serializeMap((Map<?, ?>) value, context));
+                    return;
+                }
+                writer.beginObj();
+                for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
+                    if (entry.getKey() instanceof String && isSerializable(entry.getValue(), context)) {
+                        writer.name(entry.getKey().toString());
+                        serialize(entry.getValue(), writer, context);
+                    }
+                }
+                writer.endObj();
+                return;
+            case SPEC_NAME: {
+                DataSpec<?> spec = context.getRegistry().findSpec(((SpecName) value).getSpecName());
+                if (spec != null) {
+                    spec.serialize(value, writer, context);
+                } else if (strategy.getSubSpec() != null) {
+                    SubSpec subSpec = strategy.getSubSpec();
+                    subSpec.serialize(value, writer, context);
+                } else {
+                    writeValue(value, strategy, writer, context);
                 }
+                return;
+            }
+            case SUB_SPEC: {
+                SubSpec spec = strategy.getSubSpec();
+                spec.serialize(value, writer, context);
+                return;
+            }
+            default:
+                writeValue(value, strategy, writer, context);
+        }
+    }
+
+    // writes values that serialize through DataValue.of
+    private static void writeValue(Object value, TypeStrategy strategy, DataWriter writer, Context context) throws IOException {
+        switch (strategy.getValueKind()) {
+            case VALUE:
+                writer.value((DataValue) value);
+                break;
+            case NUMBER:
+            case PRIMITIVE:
+                writer.value(value);
+                break;
+            case SPEC:
+                strategy.getSpec().serialize(value, writer, context);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void writeArray(Object value, DataWriter writer, Context context) throws IOException {
+        if (value instanceof Object[]) {
+            for (Object child : (Object[]) value) {
+                writeElement(child, writer, context);
+            }
+        } else if (value instanceof int[]) {
+            for (int i : (int[]) value) {
+                writer.value(i);
+            }
+        } else if (value instanceof long[]) {
+            for (long l : (long[]) value) {
+                writer.value(l);
+            }
+        } else if (value instanceof float[]) {
+            for (float f : (float[]) value) {
+                writer.value(f);
+            }
+        } else if (value instanceof double[]) {
+            for (double d : (double[]) value) {
+                writer.value(d);
+            }
+        } else if (value instanceof short[]) {
+            for (short s : (short[]) value) {
+                writer.value(s);
+            }
+        } else if (value instanceof byte[]) {
+            for (byte b : (byte[]) value) {
+                writer.value(b);
+            }
+        } else if (value instanceof boolean[]) {
+            for (boolean b : (boolean[]) value) {
+                writer.value((Object) b);
+            }
+        } else {
+            for (int i = 0, size = Array.getLength(value); i < size; i++) {
+                writeElement(Array.get(value, i), writer, context);
             }
-            return object;
         }
+    }
 
-        if (value instanceof SpecName) {
-            String name = ((SpecName) value).getSpecName();
-            if (DataSpecs.hasSpec(name)) {
-                return DataSpecs.getSpec(name).serialize(value, context);
+    // writes values produced by the parallel serializer, dropping nulls like writeElement does
+    private static void writeAll(DataValue[] values, DataWriter writer) throws IOException {
+        for (DataValue value : values) {
+            if (value.isNonNull()) {
+                writer.value(value);
             }
         }
+    }
 
-        if (DataSpecs.isSubSpec(value)) {
-            SubSpec spec = DataSpecs.getSubSpec(value);
-            return spec.serialize(value, context);
+    private static void writeElement(Object value, DataWriter writer, Context context) throws IOException {
+        if (isSerializable(value, context)) {
+            serialize(value, writer, context);
         }
+    }
 
-        return DataValue.of(value, context);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void serialize(String type, Object value, DataWriter writer, Context context) throws IOException {
+        SpecRegistry registry = context.getRegistry();
+        DataSpec<?> spec = registry.findSpec(type);
+        if (spec != null) {
+            spec.serialize(value, writer, context);
+            return;
+        }
+
+        SubSpec subSpec = registry.getSubSpec(value);
+        if (subSpec != null) {
+            subSpec.serialize(value, writer, context);
+            return;
+        }
+
+        writer.write(DataValue.of(value, context));
+    }
+
+    /**
+     * Checks whether serializing the value produces anything other than DataValue.NULL. Null values are dropped
+     * from lists and objects so the streaming writer must know before it emits a key or list entry.
+     */
+    public static boolean isSerializable(Object value) {
+        return isSerializable(value, Context.NONE);
+    }
+
+    public static boolean isSerializable(Object value, Context context) {
+        TypeStrategy strategy = TypeStrategy.of(value.getClass(), context);
+        switch (strategy.getInferredKind()) {
+            case ARRAY:
+            case ITERABLE:
+            case MAP:
+            case SUB_SPEC:
+                return true;
+            case SPEC_NAME: {
+                DataSpec<?> spec = context.getRegistry().findSpec(((SpecName) value).getSpecName());
+                if (spec != null) {
+                    return spec.getType().isInstance(value);
+                }
+                return strategy.getSubSpec() != null || isValueSerializable(value, strategy);
+            }
+            default:
+                return isValueSerializable(value, strategy);
+        }
+    }
+
+    private static boolean isValueSerializable(Object value, TypeStrategy strategy) {
+        switch (strategy.getValueKind()) {
+            case VALUE:
+                return ((DataValue) value).isNonNull();
+            case SPEC:
+                return strategy.getSpec().getType().isInstance(value);
+            case NULL:
+                return false;
+            default:
+                return true;
+        }
     }
 
     public static <T> T deserialize(DataObject data, Class<T> type, Context context) {
-        String spec = data.getType();
-        if (DataSpecs.hasSpec(spec)) {
-            return DataSpecs.getSpec(spec).deserialize(data, type, context);
+        SpecRegistry registry = context.getRegistry();
+        DataSpec<?> spec = registry.findSpec(data.getType());
+        if (spec != null) {
+            return spec.deserialize(data, type, context);
         }
 
-        SubSpec<?> subSpec = DataSpecs.getSubSpec(type);
+        SubSpec<?> subSpec = registry.getSubSpec(type);
         if (subSpec == null) {
-            throw new RuntimeException(String.format("No spec registered for name: '%s' or type: '%s'", spec, type));
+            throw new RuntimeException(String.format("No spec registered for name: '%s' or type: '%s'", data.getType(), type));
         }
 
         return type.cast(subSpec.deserialize(data, context));
@@ -148,6 +546,11 @@ public class Cereal {
     }
 
     public static <T> List<T> deserialize(DataList data, Class<T> type, Context context) {
+        int threshold = context.getParallelThreshold();
+        if (threshold > 0 && data.size() >= threshold) {
+            return Parallel.deserialize(data, type, context);
+        }
+
         List<T> list = new ArrayList<>(data.size());
         for (DataValue value : data) {
             if (value.isObj()) {
@@ -156,4 +559,16 @@ public class Cereal {
         }
         return list;
     }
+
+    public static <T> List<T> deserializeParallel(DataList data, Class<T> type) {
+        return deserializeParallel(data, type, Context.NONE);
+    }
+
+    /**
+     * Deserializes the list's objects on the ForkJoinPool regardless of its size. The returned list has the
+     * same order as the input and if any factory fails, the exception for the first failing element is thrown.
+     */
+    public static <T> List<T> deserializeParallel(DataList data, Class<T> type, Context context) {
+        return Parallel.deserialize(data, type, context);
+    }
 }
@@ -0,0 +1,233 @@
+package com.terraforged.cereal;
+
+import com.terraforged.cereal.serial.CerealParser;
+import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.spec.BindingReader;
+import com.terraforged.cereal.spec.Context;
+import com.terraforged.cereal.spec.SpecRegistry;
+import com.terraforged.cereal.value.DataInterner;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the results of reading the same text repeatedly (eg a preset loaded per world or per connection).
+ * Entries are keyed by a 64-bit hash of the text, the target type and the parts of the Context that can change
+ * what is read: the spec registry, the memoize interner and the user data (if any). A repeated read costs one
+ * pass over the text to hash and compare it instead of a full parse and deserialization.
+ *
+ * The interner and user data are compared by identity, so contexts only share entries when they share them.
+ * Changes made to a context's data after a read are not seen by the cache.
+ *
+ * The cache holds at most 'maxWeight' characters of source text and evicts the least recently used entries
+ * beyond that. Cached trees and objects are returned as the same shared instances on every hit, so they must
+ * not be modified.
+ */
+public class CerealCache {
+
+    private final long maxWeight;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long weight = 0L;
+    private long hits = 0L;
+    private long misses = 0L;
+    private long evictions = 0L;
+
+    public CerealCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public DataValue read(CharSequence text) throws IOException {
+        return (DataValue) get(text, DataValue.class, false, Context.NONE);
+    }
+
+    public DataValue read(Reader reader) throws IOException {
+        return read(drain(reader));
+    }
+
+    public <T> T read(CharSequence text, Class<T> type) throws IOException {
+        return read(text, type, Context.NONE);
+    }
+
+    public <T> T read(CharSequence text, Class<T> type, Context context) throws IOException {
+        return type.cast(get(text, type, false, context));
+    }
+
+    public <T> T read(Reader reader, Class<T> type, Context context) throws IOException {
+        return read(drain(reader), type, context);
+    }
+
+    public <T> List<T> readList(CharSequence text, Class<T> type) throws IOException {
+        return readList(text, type, Context.NONE);
+    }
+
+    /**
+     * The returned list is shared between hits - it must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> readList(CharSequence text, Class<T> type, Context context) throws IOException {
+        return (List<T>) get(text, type, true, context);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * The number of characters of source text held by the cache.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0L;
+    }
+
+    private Object get(CharSequence text, Class<?> type, boolean list, Context context) throws IOException {
+        String source = text.toString();
+        Key key = new Key(hash(source), source.length(), type, list, context);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            // the text is compared in full so that a hash collision can't return another document's value
+            if (entry != null && entry.text.equals(source)) {
+                hits++;
+                return entry.value;
+            }
+            misses++;
+        }
+
+        // parsed outside the lock - concurrent misses on the same text may each parse it
+        Object value = load(source, type, list, context);
+
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(source, value));
+            if (previous != null) {
+                weight -= previous.text.length();
+            }
+            weight += source.length();
+            evict();
+        }
+        return value;
+    }
+
+    private static Object load(String text, Class<?> type, boolean list, Context context) throws IOException {
+        if (type == DataValue.class) {
+            return new DataReader(text).read();
+        }
+        BindingReader reader = new BindingReader(new CerealParser(text));
+        return list ? reader.readList(type, context) : reader.read(type, context);
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().text.length();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static String drain(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder(4096);
+        char[] buffer = new char[4096];
+        for (int len; (len = reader.read(buffer)) != -1; ) {
+            sb.append(buffer, 0, len);
+        }
+        return sb.toString();
+    }
+
+    // 64-bit multiply-xorshift over the chars, two at a time
+    private static long hash(String text) {
+        long hash = 0x9E3779B97F4A7C15L ^ text.length();
+        int i = 0;
+        for (int end = text.length() - 1; i < end; i += 2) {
+            hash = (hash ^ (text.charAt(i) | (long) text.charAt(i + 1) << 16)) * 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 29;
+        }
+        if (i < text.length()) {
+            hash = (hash ^ text.charAt(i)) * 0xFF51AFD7ED558CCDL;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static class Key {
+
+        private final long hash;
+        private final int length;
+        private final Class<?> type;
+        private final boolean list;
+        private final SpecRegistry registry;
+        private final DataInterner interner;
+        private final DataObject data;
+
+        private Key(long hash, int length, Class<?> type, boolean list, Context context) {
+            this.hash = hash;
+            this.length = length;
+            this.type = type;
+            this.list = list;
+            // plain DataValue reads don't involve the context
+            boolean typed = type != DataValue.class;
+            this.registry = typed ? context.getRegistry() : null;
+            this.interner = typed ? context.getInterner() : null;
+            this.data = typed && context.getData().size() > 0 ? context.getData() : null;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32)) * 31 + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            // registries are immutable so a new one (eg after DataSpecs.register) is a new key
+            return hash == other.hash
+                    && length == other.length
+                    && type == other.type
+                    && list == other.list
+                    && registry == other.registry
+                    && interner == other.interner
+                    && data == other.data;
+        }
+    }
+
+    private static class Entry {
+
+        private final String text;
+        private final Object value;
+
+        private Entry(String text, Object value) {
+            this.text = text;
+            this.value = value;
+        }
+    }
+}
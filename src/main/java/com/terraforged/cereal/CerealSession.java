@@ -0,0 +1,111 @@
+package com.terraforged.cereal;
+
+import com.terraforged.cereal.serial.CerealParser;
+import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.serial.DataWriter;
+import com.terraforged.cereal.serial.SymbolTable;
+import com.terraforged.cereal.spec.BindingReader;
+import com.terraforged.cereal.spec.Context;
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * A reusable parser and writer for reading and writing many (typically small) documents, such as network
+ * messages, without the per-call setup of the static Cereal methods. The parser's input block, token buffer
+ * and symbol table and the writer's output buffer are allocated once and reused. Parser buffers grown past
+ * 64K chars by a one-off large document are released on the next reset, so a per-thread session doesn't hold
+ * on to them for the life of the thread.
+ *
+ * Sessions are not thread-safe - use {@link #get()} for one per thread. A session must not be used again from
+ * within a read or write that it is performing (eg from a spec's factory).
+ */
+public class CerealSession {
+
+    private static final ThreadLocal<CerealSession> SESSIONS = ThreadLocal.withInitial(CerealSession::new);
+
+    private final Context context;
+    private final CerealParser parser;
+    private final DataReader reader;
+    private final BindingReader binder;
+    private final DataWriter writer;
+
+    public CerealSession() {
+        this(CerealSpec.STANDARD, Context.NONE);
+    }
+
+    public CerealSession(CerealSpec spec, Context context) {
+        this.context = context;
+        this.parser = new CerealParser(new StringReader(""), spec, new SymbolTable());
+        this.reader = new DataReader(parser);
+        this.binder = new BindingReader(parser);
+        this.writer = new DataWriter(new StringWriter(0), spec);
+    }
+
+    /**
+     * The calling thread's session, using the standard spec and no context options.
+     */
+    public static CerealSession get() {
+        return SESSIONS.get();
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public CerealSession reset(Reader reader) {
+        parser.reset(reader);
+        return this;
+    }
+
+    public CerealSession reset(CharSequence text) {
+        parser.reset(text);
+        return this;
+    }
+
+    public CerealSession reset(Writer writer) {
+        this.writer.reset(writer);
+        return this;
+    }
+
+    public DataValue read() throws IOException {
+        return reader.read();
+    }
+
+    public <T> T read(Class<T> type) throws IOException {
+        return binder.read(type, context);
+    }
+
+    public <T> List<T> readList(Class<T> type) throws IOException {
+        return binder.readList(type, context);
+    }
+
+    public <T> T read(Reader reader, Class<T> type) throws IOException {
+        return reset(reader).read(type);
+    }
+
+    public <T> T read(CharSequence text, Class<T> type) throws IOException {
+        return reset(text).read(type);
+    }
+
+    public void write(DataValue value) throws IOException {
+        writer.write(value);
+    }
+
+    public void write(Object object) throws IOException {
+        Cereal.serialize(object, writer, context);
+    }
+
+    public void write(Object object, String type) throws IOException {
+        Cereal.serialize(type, object, writer, context);
+    }
+
+    public void write(Object object, Writer writer) throws IOException {
+        reset(writer).write(object);
+    }
+}
@@ -4,6 +4,10 @@ public class CerealSpec {
 
     public static final char NONE = (char) 0;
     public static final CerealSpec STANDARD = new CerealSpec("  ", CerealSpec.NONE, ' ', '\'');
+    /**
+     * No indentation or line breaks - tokens are only separated where the reader would otherwise join them.
+     */
+    public static final CerealSpec COMPACT = new CerealSpec("", CerealSpec.NONE, ' ', '\'');
 
     public final String indent;
     public final char delimiter;
@@ -11,10 +15,10 @@ public class CerealSpec {
     public final char escapeChar;
 
     /**
-     * @param indent - spaces per indent level
+     * @param indent - spaces per indent level. An empty indent writes compact output
      * @param delimiter - marks the end of a key
      * @param separator - the space between key and value. If the delimiter is NONE the separator must be a space char
-     * @param escapeChar - the character use to enclose escaped text
+     * @param escapeChar - the character use to enclose escaped text. It is doubled where it appears within the text
      */
     public CerealSpec(String indent, char delimiter, char separator, char escapeChar) {
         this.indent = indent;
@@ -0,0 +1,193 @@
+package com.terraforged.cereal;
+
+import com.terraforged.cereal.spec.Context;
+import com.terraforged.cereal.value.DataList;
+import com.terraforged.cereal.value.DataValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join implementations of Cereal's list and map operations. Work is split into index ranges whose results
+ * are written to a shared array so that the output keeps the order of the input. Tasks run on the pool of the
+ * calling thread when it is a ForkJoin worker, otherwise on the common pool.
+ */
+final class Parallel {
+
+    private static final Object SKIPPED = new Object();
+
+    private Parallel() {
+
+    }
+
+    static <T> List<T> deserialize(DataList data, Class<T> type, Context context) {
+        Object[] results = new Object[data.size()];
+        Failure failure = new Failure();
+        invoke(new DeserializeTask<>(data, type, context, results, failure, 0, results.length, chunkSize(results.length)));
+        failure.rethrow();
+
+        List<T> list = new ArrayList<>(results.length);
+        for (Object result : results) {
+            if (result != SKIPPED) {
+                list.add(type.cast(result));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Serializes each value as Cereal.serialize(value, context) would. Values that serialize to DataValue.NULL
+     * are left in the result so that callers can drop them the same way the sequential path does.
+     */
+    static DataValue[] serialize(Object[] values, Context context) {
+        DataValue[] results = new DataValue[values.length];
+        Failure failure = new Failure();
+        invoke(new SerializeTask(values, context, results, failure, 0, values.length, chunkSize(values.length)));
+        failure.rethrow();
+        return results;
+    }
+
+    static int chunkSize(int size) {
+        int parallelism = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, size / (parallelism * 4));
+    }
+
+    static void invoke(ForkJoinTask<?> task) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.invoke();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Records the exception thrown for the lowest index so that the caller sees the same exception that the
+     * sequential implementation would have thrown. Ranges past a failed index stop early.
+     */
+    static class Failure {
+
+        // volatile so that the per-element check is a plain read, only recording takes the lock
+        private volatile int index = Integer.MAX_VALUE;
+        private RuntimeException exception;
+
+        boolean isBefore(int index) {
+            return this.index < index;
+        }
+
+        synchronized void record(int index, RuntimeException exception) {
+            if (index < this.index) {
+                this.index = index;
+                this.exception = exception;
+            }
+        }
+
+        synchronized void rethrow() {
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    // applies compute(index) to every index in [start, end), splitting the range until it fits in one chunk
+    @SuppressWarnings("serial")
+    private static abstract class RangeTask extends RecursiveAction {
+
+        protected final Failure failure;
+        protected final int start;
+        protected final int end;
+        protected final int chunk;
+
+        private RangeTask(Failure failure, int start, int end, int chunk) {
+            this.failure = failure;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+        }
+
+        protected abstract RangeTask subTask(int start, int end);
+
+        protected abstract void compute(int index);
+
+        @Override
+        protected void compute() {
+            if (end - start > chunk) {
+                int mid = (start + end) >>> 1;
+                invokeAll(subTask(start, mid), subTask(mid, end));
+                return;
+            }
+
+            for (int i = start; i < end; i++) {
+                if (failure.isBefore(i)) {
+                    return;
+                }
+
+                try {
+                    compute(i);
+                } catch (RuntimeException e) {
+                    failure.record(i, e);
+                    return;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class DeserializeTask<T> extends RangeTask {
+
+        private final DataList data;
+        private final Class<T> type;
+        private final Context context;
+        private final Object[] results;
+
+        private DeserializeTask(DataList data, Class<T> type, Context context, Object[] results, Failure failure, int start, int end, int chunk) {
+            super(failure, start, end, chunk);
+            this.data = data;
+            this.type = type;
+            this.context = context;
+            this.results = results;
+        }
+
+        @Override
+        protected RangeTask subTask(int start, int end) {
+            return new DeserializeTask<>(data, type, context, results, failure, start, end, chunk);
+        }
+
+        @Override
+        protected void compute(int index) {
+            DataValue value = data.get(index);
+            if (value.isObj()) {
+                results[index] = Cereal.deserialize(value.asObj(), type, context);
+            } else {
+                results[index] = SKIPPED;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class SerializeTask extends RangeTask {
+
+        private final Object[] values;
+        private final Context context;
+        private final DataValue[] results;
+
+        private SerializeTask(Object[] values, Context context, DataValue[] results, Failure failure, int start, int end, int chunk) {
+            super(failure, start, end, chunk);
+            this.values = values;
+            this.context = context;
+            this.results = results;
+        }
+
+        @Override
+        protected RangeTask subTask(int start, int end) {
+            return new SerializeTask(values, context, results, failure, start, end, chunk);
+        }
+
+        @Override
+        protected void compute(int index) {
+            results[index] = Cereal.serialize(values[index], context);
+        }
+    }
+}
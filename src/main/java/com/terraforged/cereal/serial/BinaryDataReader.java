@@ -0,0 +1,231 @@
+package com.terraforged.cereal.serial;
+
+import com.terraforged.cereal.value.DataList;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BinaryDataReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final List<String> symbols = new ArrayList<>();
+
+    private byte[] buffer;
+    private int pos = 0;
+    private int limit = 0;
+
+    public BinaryDataReader(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    public BinaryDataReader(byte[] bytes) {
+        this.in = null;
+        this.buffer = bytes;
+        this.limit = bytes.length;
+    }
+
+    /**
+     * Reads the next complete document, returning DataValue.NULL if the input is exhausted.
+     */
+    public DataValue read() throws IOException {
+        if (!fill(1)) {
+            return DataValue.NULL;
+        }
+
+        for (byte b : BinaryFormat.MAGIC) {
+            if (readByte() != b) {
+                throw new IOException("Invalid binary cereal header");
+            }
+        }
+
+        int version = readByte();
+        if (version != BinaryFormat.VERSION) {
+            throw new IOException("Unsupported binary cereal version: " + version);
+        }
+
+        symbols.clear();
+        return readValue();
+    }
+
+    private DataValue readValue() throws IOException {
+        byte tag = readByte();
+        switch (tag) {
+            case BinaryFormat.OBJECT:
+                return readObject();
+            case BinaryFormat.LIST:
+                return readList();
+            case BinaryFormat.LONG:
+                return DataValue.of(unzigzag(readVarLong()));
+            case BinaryFormat.DOUBLE:
+                return DataValue.of(Double.longBitsToDouble(readLong()));
+            case BinaryFormat.STRING:
+                return DataValue.of(readString());
+            case BinaryFormat.TRUE:
+                return DataValue.of(true);
+            case BinaryFormat.FALSE:
+                return DataValue.of(false);
+            case BinaryFormat.NULL:
+                return DataValue.NULL;
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+
+    private DataValue readObject() throws IOException {
+        DataObject object = new DataObject(readSymbol());
+        int size = readSize();
+        for (int i = 0; i < size; i++) {
+            String key = readSymbol();
+            object.add(key, readValue());
+        }
+        return object;
+    }
+
+    private DataValue readList() throws IOException {
+        int size = readSize();
+        // each element takes at least one byte, so the buffered bytes bound the capacity worth reserving
+        DataList list = size > 0 && isNumber(peekByte()) ? DataList.packed() : new DataList(Math.min(size, limit - pos));
+        for (int i = 0; i < size; i++) {
+            byte tag = peekByte();
+            if (tag == BinaryFormat.LONG) {
+                pos++;
+                list.add(unzigzag(readVarLong()));
+            } else if (tag == BinaryFormat.DOUBLE) {
+                pos++;
+                list.add(Double.longBitsToDouble(readLong()));
+            } else {
+                list.add(readValue());
+            }
+        }
+        return list;
+    }
+
+    private static boolean isNumber(byte tag) {
+        return tag == BinaryFormat.LONG || tag == BinaryFormat.DOUBLE;
+    }
+
+    private String readSymbol() throws IOException {
+        int index = readVarInt();
+        if (index == 0) {
+            String symbol = readString();
+            symbols.add(symbol);
+            return symbol;
+        }
+        if (index > symbols.size()) {
+            throw new IOException("Invalid symbol reference: " + index);
+        }
+        return symbols.get(index - 1);
+    }
+
+    private String readString() throws IOException {
+        int length = readVarInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        require(length);
+        String string = new String(buffer, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return string;
+    }
+
+    // a list or object size, checked against the bytes left when reading from an array
+    private int readSize() throws IOException {
+        int size = readVarInt();
+        if (size < 0 || (in == null && size > limit - pos)) {
+            throw new IOException("Invalid size: " + size);
+        }
+        return size;
+    }
+
+    private int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private long readLong() throws IOException {
+        require(8);
+        long value = 0L;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer[pos++] & 0xFF);
+        }
+        return value;
+    }
+
+    private byte peekByte() throws IOException {
+        require(1);
+        return buffer[pos];
+    }
+
+    private byte readByte() throws IOException {
+        require(1);
+        return buffer[pos++];
+    }
+
+    private void require(int length) throws IOException {
+        if (!fill(length)) {
+            throw new IOException("Unexpected end");
+        }
+    }
+
+    // ensures at least 'length' bytes are available from pos, compacting and growing the buffer if needed
+    private boolean fill(int length) throws IOException {
+        if (limit - pos >= length) {
+            return true;
+        }
+
+        if (in == null) {
+            return false;
+        }
+
+        int remaining = limit - pos;
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, remaining);
+        }
+
+        pos = 0;
+        limit = remaining;
+        while (limit < length) {
+            // grown as the bytes arrive so that a corrupt length fails at the end of the stream, not on allocation
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(Integer.MAX_VALUE - 8, (long) buffer.length << 1));
+            }
+            int count = in.read(buffer, limit, buffer.length - limit);
+            if (count == -1) {
+                return false;
+            }
+            limit += count;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,200 @@
+package com.terraforged.cereal.serial;
+
+import com.terraforged.cereal.value.DataDouble;
+import com.terraforged.cereal.value.DataFloat;
+import com.terraforged.cereal.value.DataList;
+import com.terraforged.cereal.value.DataLong;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BinaryDataWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final Map<String, Integer> symbols = new HashMap<>();
+
+    private int pos = 0;
+
+    public BinaryDataWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes the value as a complete document, including the header and its own string table.
+     */
+    public void write(DataValue value) throws IOException {
+        symbols.clear();
+        writeBytes(BinaryFormat.MAGIC, 0, BinaryFormat.MAGIC.length);
+        writeByte(BinaryFormat.VERSION);
+        writeValue(value);
+        flush();
+    }
+
+    public void flush() throws IOException {
+        if (pos > 0) {
+            out.write(buffer, 0, pos);
+            pos = 0;
+        }
+        out.flush();
+    }
+
+    private void writeValue(DataValue value) throws IOException {
+        if (value.isObj()) {
+            writeObject(value.asObj());
+        } else if (value.isList()) {
+            writeList(value.asList());
+        } else if (value.isNull()) {
+            writeByte(BinaryFormat.NULL);
+        } else if (value.isBool()) {
+            writeByte(value.asBool() ? BinaryFormat.TRUE : BinaryFormat.FALSE);
+        } else if (value.isNum()) {
+            writeNumber(value);
+        } else {
+            writeByte(BinaryFormat.STRING);
+            writeString(value.asString());
+        }
+    }
+
+    private void writeObject(DataObject object) throws IOException {
+        writeByte(BinaryFormat.OBJECT);
+        writeSymbol(object.getType());
+        writeVarInt(object.size());
+        for (Map.Entry<String, DataValue> entry : object) {
+            writeSymbol(entry.getKey());
+            writeValue(entry.getValue());
+        }
+    }
+
+    private void writeList(DataList list) throws IOException {
+        writeByte(BinaryFormat.LIST);
+        writeVarInt(list.size());
+        for (DataValue value : list) {
+            writeValue(value);
+        }
+    }
+
+    private void writeNumber(DataValue value) throws IOException {
+        if (value instanceof DataLong) {
+            writeByte(BinaryFormat.LONG);
+            writeVarLong(zigzag(value.asLong()));
+        } else if (value instanceof DataDouble || value instanceof DataFloat) {
+            writeByte(BinaryFormat.DOUBLE);
+            writeLong(Double.doubleToRawLongBits(value.asDouble()));
+        } else {
+            writeNumber(value.asNum());
+        }
+    }
+
+    private void writeNumber(Number number) throws IOException {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            writeByte(BinaryFormat.LONG);
+            writeVarLong(zigzag(number.longValue()));
+        } else {
+            writeByte(BinaryFormat.DOUBLE);
+            writeLong(Double.doubleToRawLongBits(number.doubleValue()));
+        }
+    }
+
+    private void writeSymbol(String symbol) throws IOException {
+        Integer index = symbols.get(symbol);
+        if (index != null) {
+            writeVarInt(index + 1);
+            return;
+        }
+        symbols.put(symbol, symbols.size());
+        writeVarInt(0);
+        writeString(symbol);
+    }
+
+    private void writeString(String string) throws IOException {
+        int length = string.length();
+        if (isAscii(string)) {
+            writeVarInt(length);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[pos++] = (byte) string.charAt(i);
+            }
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte) value;
+    }
+
+    private void writeLong(long value) throws IOException {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[pos++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer[pos++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length) {
+            flushBuffer();
+            out.write(bytes, offset, length);
+            return;
+        }
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, pos, length);
+        pos += length;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (pos + length > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, pos);
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws Exception {
+        flush();
+        out.close();
+    }
+
+    private static boolean isAscii(String string) {
+        if (string.length() > BUFFER_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,36 @@
+package com.terraforged.cereal.serial;
+
+/**
+ * Layout of the binary Cereal encoding.
+ *
+ * A document starts with the MAGIC bytes followed by the VERSION byte and a single value. Values begin with a
+ * tag byte:
+ * - OBJECT: symbol type name, varint entry count, then symbol key + value per entry
+ * - LIST: varint element count, then each value
+ * - LONG: zigzag varint
+ * - DOUBLE: 8 byte big-endian IEEE 754
+ * - STRING: varint byte length + UTF-8 bytes
+ * - TRUE/FALSE/NULL: no payload
+ *
+ * Symbols (keys and type names) are written as a varint reference into the document's string table. Zero means
+ * a new symbol follows as a length-prefixed UTF-8 string and is appended to the table, any other value n refers
+ * to the (n - 1)th entry.
+ */
+final class BinaryFormat {
+
+    static final byte[] MAGIC = {'C', 'R', 'L'};
+    static final int VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte OBJECT = 1;
+    static final byte LIST = 2;
+    static final byte LONG = 3;
+    static final byte DOUBLE = 4;
+    static final byte STRING = 5;
+    static final byte TRUE = 6;
+    static final byte FALSE = 7;
+
+    private BinaryFormat() {
+
+    }
+}
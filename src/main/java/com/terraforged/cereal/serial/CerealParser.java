@@ -0,0 +1,680 @@
+package com.terraforged.cereal.serial;
+
+import com.terraforged.cereal.CerealSpec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class CerealParser implements AutoCloseable {
+
+    private static final char NONE = (char) -1;
+    private static final int BLOCK_SIZE = 8192;
+    // the largest input block and token buffer kept between documents
+    private static final int MAX_RETAINED = 1 << 16;
+
+    private static final byte KEY = 1;
+    private static final byte VALUE = 2;
+    private static final byte[] ASCII = new byte[128];
+
+    // smallest code point for 2, 3 and 4 byte sequences - anything below is an overlong encoding
+    private static final int[] MIN_CODE_POINT = {0, 0x80, 0x800, 0x10000};
+
+    private static final int STATE_START = 0;
+    private static final int STATE_VALUE = 1;
+    private static final int STATE_CONTAINER = 2;
+    private static final int STATE_TYPE = 3;
+    private static final int STATE_END = 4;
+
+    static {
+        for (char c = 0; c < ASCII.length; c++) {
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                ASCII[c] = KEY | VALUE;
+            } else if (c == '.' || c == '-') {
+                ASCII[c] = VALUE;
+            }
+        }
+    }
+
+    private Reader reader;
+    private final CerealSpec spec;
+    private final SymbolTable symbols;
+    private final DataBuffer buffer = new DataBuffer();
+
+    // input is either 'chars' (filled from the reader when set) or UTF-8 'bytes', pos/limit index into whichever
+    private char[] chars;
+    private ByteBuffer bytes;
+    private int pos = 0;
+    private int limit = 0;
+
+    private char c = NONE;
+    // the low surrogate of a decoded supplementary code point, returned by the following call to next()
+    private char pending = NONE;
+
+    private int state = STATE_START;
+    private int depth = 0;
+    private boolean[] lists = new boolean[16];
+
+    private Token token = null;
+    private boolean escaped = false;
+    private String type = "";
+
+    public CerealParser(Reader reader) {
+        this(reader, CerealSpec.STANDARD);
+    }
+
+    public CerealParser(Reader reader, CerealSpec spec) {
+        this(reader, spec, new SymbolTable());
+    }
+
+    public CerealParser(Reader reader, CerealSpec spec, SymbolTable symbols) {
+        this.reader = reader;
+        this.spec = spec;
+        this.symbols = symbols;
+        this.chars = new char[BLOCK_SIZE];
+        this.bytes = null;
+    }
+
+    public CerealParser(CharSequence text) {
+        this(text, CerealSpec.STANDARD);
+    }
+
+    public CerealParser(CharSequence text, CerealSpec spec) {
+        this(text, spec, new SymbolTable());
+    }
+
+    public CerealParser(CharSequence text, CerealSpec spec, SymbolTable symbols) {
+        this.reader = null;
+        this.spec = spec;
+        this.symbols = symbols;
+        this.chars = toCharArray(text);
+        this.bytes = null;
+        this.limit = chars.length;
+    }
+
+    /**
+     * Parses the UTF-8 file by memory-mapping it. See {@link #CerealParser(ByteBuffer, CerealSpec, SymbolTable)}.
+     */
+    public CerealParser(Path path) throws IOException {
+        this(path, CerealSpec.STANDARD);
+    }
+
+    public CerealParser(Path path, CerealSpec spec) throws IOException {
+        this(path, spec, new SymbolTable());
+    }
+
+    public CerealParser(Path path, CerealSpec spec, SymbolTable symbols) throws IOException {
+        this(map(path), spec, symbols);
+    }
+
+    /**
+     * Parses the UTF-8 encoded bytes between the buffer's position and limit. The bytes are lexed directly -
+     * only keys, values and strings containing non-ASCII bytes are run through the decoder. A leading byte
+     * order mark is skipped. The buffer's position is not modified.
+     */
+    public CerealParser(ByteBuffer bytes, CerealSpec spec, SymbolTable symbols) {
+        this.reader = null;
+        this.spec = spec;
+        this.symbols = symbols;
+        this.chars = new char[0];
+        this.bytes = bytes;
+        this.pos = bytes.position();
+        this.limit = bytes.limit();
+        if (limit - pos >= 3 && bytes.get(pos) == (byte) 0xEF && bytes.get(pos + 1) == (byte) 0xBB && bytes.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    /**
+     * Prepares the parser to read a new document from the reader. The parser's buffers (and symbol table) are
+     * kept, so a single parser can read many small documents without reallocating them. Buffers grown past 64K
+     * chars by a large document are released.
+     */
+    public CerealParser reset(Reader reader) {
+        if (chars.length < BLOCK_SIZE || chars.length > MAX_RETAINED) {
+            chars = new char[BLOCK_SIZE];
+        }
+        this.reader = reader;
+        this.bytes = null;
+        this.limit = 0;
+        return reset();
+    }
+
+    /**
+     * Prepares the parser to read a new document from the text. See {@link #reset(Reader)}.
+     */
+    public CerealParser reset(CharSequence text) {
+        int length = text.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, Math.min(MAX_RETAINED, chars.length + (chars.length >> 1)))];
+        } else if (chars.length > MAX_RETAINED && length <= MAX_RETAINED) {
+            chars = new char[Math.max(length, BLOCK_SIZE)];
+        }
+        if (text instanceof String) {
+            ((String) text).getChars(0, length, chars, 0);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[i] = text.charAt(i);
+            }
+        }
+        this.reader = null;
+        this.bytes = null;
+        this.limit = length;
+        return reset();
+    }
+
+    private CerealParser reset() {
+        pos = 0;
+        c = NONE;
+        pending = NONE;
+        state = STATE_START;
+        depth = 0;
+        token = null;
+        escaped = false;
+        type = "";
+        buffer.reset();
+        buffer.trim(MAX_RETAINED);
+        return this;
+    }
+
+    /**
+     * Advances to the next token in the document. Once the root value has been fully read every subsequent
+     * call returns END_DOCUMENT.
+     */
+    public Token nextToken() throws IOException {
+        switch (state) {
+            case STATE_START:
+                if (!next()) {
+                    state = STATE_END;
+                    return token = Token.END_DOCUMENT;
+                }
+                return token = readValue();
+            case STATE_VALUE:
+                return token = readValue();
+            case STATE_TYPE:
+                next();
+                push(false);
+                return token = Token.BEGIN_OBJECT;
+            case STATE_CONTAINER:
+                return token = readContainer();
+            default:
+                return token = Token.END_DOCUMENT;
+        }
+    }
+
+    /**
+     * Skips over the contents of the object or list whose BEGIN_OBJECT/BEGIN_LIST token was just returned, by
+     * matching brackets rather than tokenizing them. Returns the END_OBJECT/END_LIST token of the skipped value.
+     */
+    public Token skipChildren() throws IOException {
+        if (token != Token.BEGIN_OBJECT && token != Token.BEGIN_LIST) {
+            throw new IllegalStateException("Cannot skip the children of " + token);
+        }
+
+        char escape = spec.escapeChar;
+        int level = 1;
+        while (true) {
+            if (c == escape) {
+                do {
+                    if (!next()) {
+                        throw new IOException("Unexpected end of string");
+                    }
+                } while (c != escape);
+            } else if (c == '{' || c == '[') {
+                level++;
+            } else if ((c == '}' || c == ']') && --level == 0) {
+                boolean list = lists[depth - 1];
+                pop();
+                return token = list ? Token.END_LIST : Token.END_OBJECT;
+            }
+
+            if (!next()) {
+                throw new IOException("Unexpected end");
+            }
+        }
+    }
+
+    public Token currentToken() {
+        return token;
+    }
+
+    /**
+     * The number of objects/lists currently open.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * The type name of the current TYPE or BEGIN_OBJECT token. Untyped objects report an empty name.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * The raw text of the current KEY, TYPE or VALUE token.
+     */
+    public String getText() {
+        return buffer.toString(symbols);
+    }
+
+    public boolean isNumber() {
+        return !escaped && buffer.isNumeric();
+    }
+
+    public boolean isDecimal() {
+        return !escaped && buffer.isDecimal();
+    }
+
+    public boolean isText() {
+        return escaped || buffer.isText();
+    }
+
+    public int getInt() {
+        return (int) getLong();
+    }
+
+    public long getLong() {
+        if (isNumber()) {
+            return buffer.getLong();
+        }
+        throw new IllegalStateException("Value is not a number: " + getText());
+    }
+
+    public float getFloat() {
+        return (float) getDouble();
+    }
+
+    public double getDouble() {
+        if (isNumber()) {
+            return buffer.getDouble();
+        }
+        throw new IllegalStateException("Value is not a number: " + getText());
+    }
+
+    public boolean getBoolean() {
+        return !escaped && buffer.matches("true");
+    }
+
+    /**
+     * The current VALUE token as a boxed Long, Double, Boolean or String - matching the values produced
+     * by the DataReader.
+     */
+    public Object getValue() {
+        if (escaped) {
+            return buffer.toString(symbols);
+        }
+        return buffer.getValue(symbols);
+    }
+
+    private Token readValue() throws IOException {
+        skipSpace();
+
+        if (c == '{' && next()) {
+            type = "";
+            push(false);
+            return Token.BEGIN_OBJECT;
+        }
+
+        if (c == '[' && next()) {
+            push(true);
+            return Token.BEGIN_LIST;
+        }
+
+        readPrimitive();
+        // escaped text is always a value, so a string can be followed by an untyped object in a list
+        if (!escaped && buffer.isText()) {
+            skipSpace();
+            if (c == '{') {
+                type = buffer.toString(symbols);
+                state = STATE_TYPE;
+                return Token.TYPE;
+            }
+        }
+
+        state = depth == 0 ? STATE_END : STATE_CONTAINER;
+        return Token.VALUE;
+    }
+
+    private Token readContainer() throws IOException {
+        skipSpace();
+        if (lists[depth - 1]) {
+            if (c == ']') {
+                pop();
+                return Token.END_LIST;
+            }
+            return readValue();
+        }
+
+        if (c == '}') {
+            pop();
+            return Token.END_OBJECT;
+        }
+
+        readKey();
+        state = STATE_VALUE;
+        return Token.KEY;
+    }
+
+    private void push(boolean list) {
+        if (depth == lists.length) {
+            lists = Arrays.copyOf(lists, depth << 1);
+        }
+        lists[depth++] = list;
+        state = STATE_CONTAINER;
+    }
+
+    private void pop() throws IOException {
+        next();
+        depth--;
+        state = depth == 0 ? STATE_END : STATE_CONTAINER;
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+
+        int count;
+        do {
+            count = reader.read(chars, 0, chars.length);
+        } while (count == 0);
+
+        if (count == -1) {
+            return false;
+        }
+
+        pos = 0;
+        limit = count;
+        return true;
+    }
+
+    private boolean next() throws IOException {
+        if (bytes != null) {
+            return nextByte();
+        }
+        if (pos >= limit && !fill()) {
+            return false;
+        }
+        c = chars[pos++];
+        return true;
+    }
+
+    private void skipSpace() throws IOException {
+        while (Character.isWhitespace(c)) {
+            if (!next()) {
+                throw new IOException("Unexpected end");
+            }
+        }
+    }
+
+    private void readKey() throws IOException {
+        buffer.reset();
+        buffer.append(c);
+        readRun(KEY);
+        if (c == ':') {
+            next();
+        }
+    }
+
+    private void readPrimitive() throws IOException {
+        if (c == spec.escapeChar) {
+            readEscapedString();
+            return;
+        }
+
+        escaped = false;
+        buffer.reset();
+        buffer.append(c);
+        readRun(VALUE);
+    }
+
+    private void readEscapedString() throws IOException {
+        if (bytes != null) {
+            readEscapedBytes();
+            return;
+        }
+
+        escaped = true;
+        buffer.reset();
+        char escape = spec.escapeChar;
+        while (true) {
+            int start = pos;
+            while (pos < limit && chars[pos] != escape) {
+                pos++;
+            }
+
+            buffer.append(chars, start, pos - start);
+            if (pos < limit) {
+                // consume the closing escape char and step onto the following char, unless that's a second
+                // escape char - a doubled escape char stands for one within the text
+                next();
+                if (!next() || c != escape) {
+                    return;
+                }
+                buffer.append(escape);
+                continue;
+            }
+
+            if (!fill()) {
+                throw new IOException("Unexpected end of string: " + buffer.toString());
+            }
+        }
+    }
+
+    // appends the run of chars matching the given class to the buffer and leaves 'c' on the char that ends it
+    private void readRun(byte type) throws IOException {
+        if (bytes != null) {
+            readByteRun(type);
+            return;
+        }
+
+        while (true) {
+            int start = pos;
+            while (pos < limit && matches(chars[pos], type)) {
+                pos++;
+            }
+
+            buffer.append(chars, start, pos - start);
+            if (pos < limit) {
+                break;
+            }
+
+            if (!fill()) {
+                throw new IOException("Unexpected end of string: " + buffer.toString());
+            }
+        }
+        next();
+    }
+
+    private boolean nextByte() {
+        if (pending != NONE) {
+            c = pending;
+            pending = NONE;
+            return true;
+        }
+        if (pos >= limit) {
+            return false;
+        }
+        byte b = bytes.get(pos++);
+        c = b >= 0 ? (char) b : decode(b);
+        return true;
+    }
+
+    private void readEscapedBytes() throws IOException {
+        escaped = true;
+        buffer.reset();
+        byte escape = (byte) spec.escapeChar;
+        while (true) {
+            boolean ascii = true;
+            int start = pos;
+            while (pos < limit) {
+                byte b = bytes.get(pos);
+                if (b == escape) {
+                    break;
+                }
+                ascii &= b >= 0;
+                pos++;
+            }
+
+            if (pos >= limit) {
+                throw new IOException("Unexpected end of string: " + buffer.toString());
+            }
+
+            if (ascii) {
+                buffer.append(bytes, start, pos - start);
+            } else {
+                appendUtf8(start, pos);
+            }
+
+            // a doubled escape char stands for one within the text
+            if (pos + 1 < limit && bytes.get(pos + 1) == escape) {
+                buffer.append(spec.escapeChar);
+                pos += 2;
+                continue;
+            }
+            break;
+        }
+        // consume the closing escape char and step onto the following char
+        next();
+        next();
+    }
+
+    // byte equivalent of readRun - ascii runs are widened straight into the buffer, other chars are decoded
+    private void readByteRun(byte type) throws IOException {
+        if (pending != NONE) {
+            // low surrogates are never letters/digits so the run ends here
+            next();
+            return;
+        }
+
+        while (true) {
+            int start = pos;
+            byte b = 0;
+            while (pos < limit && (b = bytes.get(pos)) >= 0 && (ASCII[b] & type) != 0) {
+                pos++;
+            }
+
+            buffer.append(bytes, start, pos - start);
+            if (pos >= limit) {
+                throw new IOException("Unexpected end of string: " + buffer.toString());
+            }
+
+            if (b >= 0) {
+                break;
+            }
+
+            pos++;
+            char decoded = decode(b);
+            if (pending != NONE || !Character.isLetterOrDigit(decoded)) {
+                // the run ends on a non-ascii char that has already been consumed
+                c = decoded;
+                return;
+            }
+            buffer.append(decoded);
+        }
+        next();
+    }
+
+    private void appendUtf8(int start, int end) {
+        pos = start;
+        while (pos < end) {
+            byte b = bytes.get(pos++);
+            if (b >= 0) {
+                buffer.append((char) b);
+                continue;
+            }
+            buffer.append(decode(b));
+            if (pending != NONE) {
+                buffer.append(pending);
+                pending = NONE;
+            }
+        }
+    }
+
+    // decodes the multi-byte sequence starting with 'lead', leaving pos after it. Supplementary code points
+    // return the high surrogate and store the low one in 'pending'. Malformed input decodes to U+FFFD.
+    private char decode(byte lead) {
+        int count;
+        int cp;
+        if ((lead & 0xE0) == 0xC0) {
+            count = 1;
+            cp = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            count = 2;
+            cp = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            count = 3;
+            cp = lead & 0x07;
+        } else {
+            return '\uFFFD';
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (pos >= limit || (bytes.get(pos) & 0xC0) != 0x80) {
+                return '\uFFFD';
+            }
+            cp = (cp << 6) | (bytes.get(pos++) & 0x3F);
+        }
+
+        if (cp < MIN_CODE_POINT[count] || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE) || cp > Character.MAX_CODE_POINT) {
+            return '\uFFFD';
+        }
+
+        if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            pending = Character.lowSurrogate(cp);
+            return Character.highSurrogate(cp);
+        }
+        return (char) cp;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static boolean matches(char c, byte type) {
+        if (c < ASCII.length) {
+            return (ASCII[c] & type) != 0;
+        }
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static char[] toCharArray(CharSequence text) {
+        if (text instanceof String) {
+            return ((String) text).toCharArray();
+        }
+        char[] chars = new char[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return chars;
+    }
+
+    public enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_LIST,
+        END_LIST,
+        TYPE,
+        KEY,
+        VALUE,
+        END_DOCUMENT,
+    }
+}
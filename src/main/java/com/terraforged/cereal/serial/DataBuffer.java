@@ -1,10 +1,17 @@
 package com.terraforged.cereal.serial;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class DataBuffer {
 
-    private char[] buffer = new char[5];
+    private static final int INITIAL_CAPACITY = 32;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private char[] buffer = new char[INITIAL_CAPACITY];
     private int index = -1;
 
     private boolean decimal = false;
@@ -16,35 +23,131 @@ public class DataBuffer {
         decimal = false;
     }
 
+    /**
+     * Releases the buffer if a long token has grown it past the given capacity.
+     */
+    public void trim(int maxCapacity) {
+        if (buffer.length > maxCapacity) {
+            buffer = new char[INITIAL_CAPACITY];
+        }
+    }
+
     public void append(char c) {
         index++;
 
         if (index >= buffer.length) {
-            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            grow(index + 1);
         }
 
         buffer[index] = c;
+        updateNumeric(c, index);
+    }
+
+    public void append(char[] chars, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+
+        int start = index + 1;
+        int end = start + length;
+        if (end > buffer.length) {
+            grow(end);
+        }
+
+        System.arraycopy(chars, offset, buffer, start, length);
+        for (int i = start; numeric && i < end; i++) {
+            updateNumeric(buffer[i], i);
+        }
+        index = end - 1;
+    }
 
+    /**
+     * Appends ASCII bytes from the buffer, widening each to a char.
+     */
+    public void append(ByteBuffer bytes, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+
+        int start = index + 1;
+        int end = start + length;
+        if (end > buffer.length) {
+            grow(end);
+        }
+
+        for (int i = start; i < end; i++) {
+            buffer[i] = (char) bytes.get(offset++);
+        }
+        for (int i = start; numeric && i < end; i++) {
+            updateNumeric(buffer[i], i);
+        }
+        index = end - 1;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(buffer.length << 1, minCapacity);
+        buffer = Arrays.copyOf(buffer, capacity);
+    }
+
+    private void updateNumeric(char c, int position) {
         if (numeric) {
             if (Character.isDigit(c)) {
                 return;
             }
-            if (c == '.' && !decimal && index > 0) {
+            if (c == '.' && !decimal && position > 0) {
                 decimal = true;
                 return;
             }
-            if (c == '-' && index == 0) {
+            if (c == '-' && position == 0) {
                 return;
             }
             numeric = false;
         }
     }
 
+    public int length() {
+        return index + 1;
+    }
+
+    public boolean isNumeric() {
+        return numeric && index >= 0;
+    }
+
+    public boolean isDecimal() {
+        return numeric && decimal;
+    }
+
+    public long getLong() {
+        if (decimal) {
+            return (long) parseDouble(buffer, index + 1);
+        }
+        return parseLong(buffer, index + 1);
+    }
+
+    public double getDouble() {
+        if (decimal) {
+            return parseDouble(buffer, index + 1);
+        }
+        return parseLong(buffer, index + 1);
+    }
+
+    public boolean isBool() {
+        return (index == 3 && matches(buffer, 4, "true")) || (index == 4 && matches(buffer, 5, "false"));
+    }
+
+    public boolean isText() {
+        return !isNumeric() && !isBool();
+    }
+
+    public boolean matches(String other) {
+        return matches(buffer, index + 1, other);
+    }
+
     public Object getValue() {
-        if (index == 4 && matches(buffer, 4,"true")) {
+        if (index == 3 && matches(buffer, 4, "true")) {
             return true;
         }
-        if (index == 5 && matches(buffer, 5, "false")) {
+        if (index == 4 && matches(buffer, 5, "false")) {
             return false;
         }
         if (numeric) {
@@ -57,6 +160,17 @@ public class DataBuffer {
         return toString();
     }
 
+    public Object getValue(SymbolTable symbols) {
+        if (isText()) {
+            return toString(symbols);
+        }
+        return getValue();
+    }
+
+    public String toString(SymbolTable symbols) {
+        return symbols.get(buffer, 0, index + 1);
+    }
+
     @Override
     public String toString() {
         return new String(buffer, 0, index + 1);
@@ -88,9 +202,12 @@ public class DataBuffer {
         return negative ? -value : value;
     }
 
+    // values with up to 15 significant digits and 22 decimal places are computed exactly from the digits as a
+    // long divided by a power of ten, anything longer falls back to Double.parseDouble
     public static double parseDouble(char[] buffer, int length) {
-        double value = 0;
-        int decimalPlace = 0;
+        long value = 0L;
+        int digits = 0;
+        int places = -1;
         boolean negative = false;
 
         for (int i = 0; i < length; i++) {
@@ -100,19 +217,21 @@ public class DataBuffer {
                 continue;
             }
             if (c == '.') {
-                decimalPlace = 1;
+                places = 0;
                 continue;
             }
             value = (value * 10) + (c - '0');
-            if (decimalPlace > 0) {
-                decimalPlace *= 10;
+            digits++;
+            if (places >= 0) {
+                places++;
             }
         }
 
-        if (decimalPlace > 0) {
-            value /= decimalPlace;
+        if (digits > 15 || places >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(buffer, 0, length));
         }
 
-        return negative ? -value : value;
+        double result = places > 0 ? value / POWERS_OF_TEN[places] : value;
+        return negative ? -result : result;
     }
 }
@@ -0,0 +1,223 @@
+package com.terraforged.cereal.serial;
+
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Extracts the values at one or more dot-separated paths (eg "climate.temperature.scale") from a document
+ * without reading the rest of it. Only the objects and lists along the paths are tokenized - any other
+ * subtree is skipped by bracket matching, and parsing stops once every path has been found. Path segments
+ * index objects by key and lists by (zero-based) position.
+ *
+ * If a key appears more than once the first occurrence is used.
+ */
+public class DataQuery {
+
+    private final Node root = new Node(null);
+    private final String[] paths;
+
+    public DataQuery(String... paths) {
+        this.paths = paths;
+        for (String path : paths) {
+            Node node = root;
+            for (String segment : path.split("\\.")) {
+                node = node.child(segment);
+            }
+            node.path = path;
+        }
+    }
+
+    /**
+     * Reads the value at the query's first path, or DataValue.NULL if the document doesn't contain it.
+     */
+    public DataValue get(CerealParser parser) throws IOException {
+        return read(parser).get(paths[0]);
+    }
+
+    /**
+     * Reads the values at each of the query's paths, in the order they were given. Paths that the document
+     * doesn't contain map to DataValue.NULL.
+     */
+    public Map<String, DataValue> read(CerealParser parser) throws IOException {
+        Map<String, DataValue> results = new LinkedHashMap<>();
+        for (String path : paths) {
+            results.put(path, DataValue.NULL);
+        }
+
+        Search search = new Search(parser, results);
+        search.visit(root, parser.nextToken());
+        return results;
+    }
+
+    private static class Node {
+
+        private final String segment;
+        private final Map<String, Node> keys = new HashMap<>();
+        private int[] indices = new int[0];
+        private Node[] elements = new Node[0];
+        private String path;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String segment) {
+            Node child = keys.get(segment);
+            if (child == null) {
+                child = new Node(segment);
+                keys.put(segment, child);
+
+                int index = parseIndex(segment);
+                if (index >= 0) {
+                    indices = Arrays.copyOf(indices, indices.length + 1);
+                    elements = Arrays.copyOf(elements, elements.length + 1);
+                    indices[indices.length - 1] = index;
+                    elements[elements.length - 1] = child;
+                }
+            }
+            return child;
+        }
+
+        private Node element(int index) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == index) {
+                    return elements[i];
+                }
+            }
+            return null;
+        }
+
+        private boolean isLeaf() {
+            return keys.isEmpty();
+        }
+
+        private static int parseIndex(String segment) {
+            if (segment.isEmpty() || segment.length() > 9) {
+                return -1;
+            }
+            for (int i = 0; i < segment.length(); i++) {
+                if (!Character.isDigit(segment.charAt(i))) {
+                    return -1;
+                }
+            }
+            return Integer.parseInt(segment);
+        }
+    }
+
+    private static class Search {
+
+        private final CerealParser parser;
+        private final DataReader reader;
+        private final Map<String, DataValue> results;
+        private int remaining;
+
+        private Search(CerealParser parser, Map<String, DataValue> results) {
+            this.parser = parser;
+            this.reader = new DataReader(parser);
+            this.results = results;
+            this.remaining = results.size();
+        }
+
+        private boolean isDone() {
+            return remaining == 0;
+        }
+
+        // 'token' is the first token of the value at 'node'
+        private void visit(Node node, CerealParser.Token token) throws IOException {
+            if (node.path != null) {
+                DataValue value = reader.readValue(token);
+                record(node, value);
+                if (!node.isLeaf()) {
+                    resolve(node, value);
+                }
+                return;
+            }
+
+            if (token == CerealParser.Token.TYPE) {
+                token = parser.nextToken();
+            }
+
+            if (token == CerealParser.Token.BEGIN_OBJECT) {
+                visitObject(node);
+            } else if (token == CerealParser.Token.BEGIN_LIST) {
+                visitList(node);
+            }
+        }
+
+        private void visitObject(Node node) throws IOException {
+            while (!isDone()) {
+                CerealParser.Token token = parser.nextToken();
+                if (token != CerealParser.Token.KEY) {
+                    return;
+                }
+
+                Node child = node.keys.get(parser.getText());
+                token = parser.nextToken();
+                if (child == null) {
+                    skip(token);
+                } else {
+                    visit(child, token);
+                }
+            }
+        }
+
+        private void visitList(Node node) throws IOException {
+            for (int index = 0; !isDone(); index++) {
+                CerealParser.Token token = parser.nextToken();
+                if (token == CerealParser.Token.END_LIST || token == CerealParser.Token.END_DOCUMENT) {
+                    return;
+                }
+
+                Node child = node.element(index);
+                if (child == null) {
+                    skip(token);
+                } else {
+                    visit(child, token);
+                }
+            }
+        }
+
+        private void skip(CerealParser.Token token) throws IOException {
+            if (token == CerealParser.Token.TYPE) {
+                token = parser.nextToken();
+            }
+            if (token == CerealParser.Token.BEGIN_OBJECT || token == CerealParser.Token.BEGIN_LIST) {
+                parser.skipChildren();
+            }
+        }
+
+        // finds the paths below the node in its already materialized value
+        private void resolve(Node node, DataValue value) {
+            for (Node child : node.keys.values()) {
+                DataValue childValue = DataValue.NULL;
+                if (value.isObj()) {
+                    childValue = value.asObj().get(child.segment);
+                } else if (value.isList()) {
+                    int index = Node.parseIndex(child.segment);
+                    if (index >= 0 && index < value.asList().size()) {
+                        childValue = value.asList().get(index);
+                    }
+                }
+
+                if (child.path != null) {
+                    record(child, childValue);
+                }
+                resolve(child, childValue);
+            }
+        }
+
+        private void record(Node node, DataValue value) {
+            if (node.path != null && results.get(node.path) == DataValue.NULL) {
+                results.put(node.path, value);
+                if (value != DataValue.NULL) {
+                    remaining--;
+                }
+            }
+        }
+    }
+}
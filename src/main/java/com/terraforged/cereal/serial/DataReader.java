@@ -7,162 +7,122 @@ import com.terraforged.cereal.value.DataValue;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.file.Path;
 
 public class DataReader implements AutoCloseable {
 
-    private static final char NONE = (char) -1;
-
-    private final Reader reader;
-    private final CerealSpec spec;
-    private final DataBuffer buffer = new DataBuffer();
-
-    private char c = NONE;
+    private final CerealParser parser;
 
     public DataReader(Reader reader) {
         this(reader, CerealSpec.STANDARD);
     }
 
     public DataReader(Reader reader, CerealSpec spec) {
-        this.reader = reader;
-        this.spec = spec;
+        this(new CerealParser(reader, spec));
     }
 
-    private boolean next() throws IOException {
-        int i = reader.read();
-        if (i == -1) {
-            return false;
-        }
-        c = (char) i;
-        return true;
+    public DataReader(Reader reader, CerealSpec spec, SymbolTable symbols) {
+        this(new CerealParser(reader, spec, symbols));
     }
 
-    private void skipSpace() throws IOException {
-        while (Character.isWhitespace(c)) {
-            if (!next()) {
-                throw new IOException("Unexpected end");
-            }
-        }
+    public DataReader(CharSequence text) {
+        this(text, CerealSpec.STANDARD);
     }
 
-    public DataValue read() throws IOException {
-        if (next()) {
-            return readValue();
-        }
-        return DataValue.NULL;
+    public DataReader(CharSequence text, CerealSpec spec) {
+        this(new CerealParser(text, spec));
     }
 
-    private DataValue readValue() throws IOException {
-        skipSpace();
+    public DataReader(CharSequence text, CerealSpec spec, SymbolTable symbols) {
+        this(new CerealParser(text, spec, symbols));
+    }
 
-        if (c == '{' && next()) {
-            return readObject("");
-        }
+    public DataReader(Path path) throws IOException {
+        this(path, CerealSpec.STANDARD);
+    }
 
-        if (c == '[' && next()) {
-            return readList();
-        }
+    public DataReader(Path path, CerealSpec spec) throws IOException {
+        this(new CerealParser(path, spec));
+    }
 
-        Object value = readPrimitive();
-        if (value instanceof String) {
-            skipSpace();
-            if (c == '{' && next()) {
-                return readObject(value.toString());
-            }
+    public DataReader(Path path, CerealSpec spec, SymbolTable symbols) throws IOException {
+        this(new CerealParser(path, spec, symbols));
+    }
+
+    public DataReader(CerealParser parser) {
+        this.parser = parser;
+    }
+
+    public DataValue read() throws IOException {
+        CerealParser.Token token = parser.nextToken();
+        if (token == CerealParser.Token.END_DOCUMENT) {
+            return DataValue.NULL;
         }
+        return readValue(token);
+    }
 
-        return DataValue.of(value);
+    /**
+     * Reads the value that begins with the given token, which has already been pulled from the parser.
+     */
+    public DataValue readValue(CerealParser.Token token) throws IOException {
+        switch (token) {
+            case TYPE:
+                parser.nextToken();
+                return readObject(parser.getType());
+            case BEGIN_OBJECT:
+                return readObject(parser.getType());
+            case BEGIN_LIST:
+                return readList();
+            case VALUE:
+                if (parser.isNumber()) {
+                    return parser.isDecimal() ? DataValue.of(parser.getDouble()) : DataValue.of(parser.getLong());
+                }
+                return DataValue.of(parser.getValue());
+            default:
+                throw new IOException("Unexpected token: " + token);
+        }
     }
 
     private DataValue readObject(String type) throws IOException {
         DataObject data = new DataObject(type);
         while (true) {
-            skipSpace();
-            if (c == '}') {
+            CerealParser.Token token = parser.nextToken();
+            if (token == CerealParser.Token.END_OBJECT) {
                 break;
             }
-            String key = readKey();
-            DataValue value = readValue();
+            String key = parser.getText();
+            DataValue value = readValue(parser.nextToken());
             data.add(key, value);
         }
-        next();
         return data;
     }
 
     private DataValue readList() throws IOException {
-        DataList list = new DataList();
-        while (true) {
-            skipSpace();
-            if (c == ']') {
-                break;
-            }
-            list.add(readValue());
-        }
-        next();
-        return list;
-    }
-
-    private String readKey() throws IOException {
-        skipSpace();
-        buffer.reset();
-        buffer.append(c);
-        while (true) {
-            if (!next()) {
-                throw new IOException("Unexpected end: " + buffer.toString());
-            }
-
-            if (!Character.isLetterOrDigit(c) && c != '_') {
-                if (c == ':') {
-                    next();
+        CerealParser.Token token = parser.nextToken();
+
+        // lists that start with a number are packed until an element of another type shows up
+        DataList list = isNumber(token) ? DataList.packed() : new DataList();
+        while (token != CerealParser.Token.END_LIST) {
+            if (isNumber(token)) {
+                if (parser.isDecimal()) {
+                    list.add(parser.getDouble());
+                } else {
+                    list.add(parser.getLong());
                 }
-                break;
-            }
-
-            buffer.append(c);
-        }
-        return buffer.toString();
-    }
-
-    private Object readPrimitive() throws IOException {
-        if (c == spec.escapeChar) {
-            return readEscapedString();
-        }
-
-        buffer.reset();
-        buffer.append(c);
-        while (true) {
-            if (!next()) {
-                throw new IOException("Unexpected end of string: " + buffer.toString());
+            } else {
+                list.add(readValue(token));
             }
-
-            if (!Character.isLetterOrDigit(c) && c != '.' && c != '-' && c != '_') {
-                break;
-            }
-
-            buffer.append(c);
+            token = parser.nextToken();
         }
-
-        return buffer.getValue();
+        return list;
     }
 
-    private String readEscapedString() throws IOException {
-        buffer.reset();
-        while (true) {
-            if (!next()) {
-                throw new IOException("Unexpected end of string: " + buffer.toString());
-            }
-
-            if (c == spec.escapeChar) {
-                next();
-                break;
-            }
-
-            buffer.append(c);
-        }
-        return buffer.toString();
+    private boolean isNumber(CerealParser.Token token) {
+        return token == CerealParser.Token.VALUE && parser.isNumber();
     }
 
     @Override
     public void close() throws Exception {
-        reader.close();
+        parser.close();
     }
 }
@@ -5,14 +5,42 @@ import com.terraforged.cereal.value.DataValue;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.math.BigDecimal;
 
+/**
+ * Writes Cereal text into an internal char buffer that is handed to the underlying Writer in large blocks -
+ * whenever it fills up and each time a root value has been completed.
+ */
 public class DataWriter implements AutoCloseable {
 
-    private final Writer writer;
+    private static final int BUFFER_SIZE = 8192;
+
+    // the kind of token that was last written - a following token starting with a char that would extend it
+    // must be separated by a space
+    private static final byte NONE = 0;
+    private static final byte KEY = 1;
+    private static final byte VALUE = 2;
+    // an escaped string - a following one is separated so the two escape chars aren't read as an escaped one
+    private static final byte STRING = 3;
+
+    private Writer writer;
     private final CerealSpec spec;
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private final boolean compact;
 
+    private int count = 0;
     private int indents = 0;
     private boolean newLine = false;
+    private byte last = NONE;
+
+    // a bare-word string that is held back until the next token is known, as a word directly followed by an
+    // untyped object would be read back as that object's type name
+    private String pending = null;
+
+    // a line break followed by the indent for the deepest level seen so far. the first 1 + depth * indent
+    // chars are written at the start of each line
+    private char[] lineBreak;
 
     public DataWriter(Writer writer) {
         this(writer, CerealSpec.STANDARD);
@@ -21,6 +49,22 @@ public class DataWriter implements AutoCloseable {
     public DataWriter(Writer writer, CerealSpec spec) {
         this.writer = writer;
         this.spec = spec;
+        this.compact = spec.indent.isEmpty();
+        this.lineBreak = lineBreak(spec.indent, 8);
+    }
+
+    /**
+     * Starts writing to a different Writer, discarding any unfinished output. The internal buffers are kept so
+     * that a single DataWriter can write many small documents without reallocating them.
+     */
+    public DataWriter reset(Writer writer) {
+        this.writer = writer;
+        this.count = 0;
+        this.indents = 0;
+        this.newLine = false;
+        this.last = NONE;
+        this.pending = null;
+        return this;
     }
 
     public void write(DataValue value) throws IOException {
@@ -28,18 +72,27 @@ public class DataWriter implements AutoCloseable {
     }
 
     public DataWriter beginObj() throws IOException {
+        if (pending != null) {
+            String word = pending;
+            pending = null;
+            escaped(word);
+        }
         newLine();
         append('{');
         newLine = true;
+        last = NONE;
         indents++;
         return this;
     }
 
     public DataWriter endObj() throws IOException {
+        release();
         indents--;
         newLine();
         append('}');
         newLine = true;
+        last = NONE;
+        endValue();
         return this;
     }
 
@@ -47,92 +100,308 @@ public class DataWriter implements AutoCloseable {
         newLine();
         append('[');
         newLine = true;
+        last = NONE;
         indents++;
         return this;
     }
 
     public DataWriter endList() throws IOException {
+        release();
         indents--;
         newLine();
         append(']');
         newLine = true;
+        last = NONE;
+        endValue();
         return this;
     }
 
+    /**
+     * Writes a key. In compact mode (an empty indent) the separator is only written when the value that
+     * follows would otherwise run into the key.
+     */
     public DataWriter name(String name) throws IOException {
         newLine();
+        if (!name.isEmpty()) {
+            separate(name.charAt(0));
+        }
         append(name);
         append(spec.delimiter);
-        append(spec.separator);
+        if (compact) {
+            last = spec.delimiter == CerealSpec.NONE ? KEY : NONE;
+        } else {
+            append(spec.separator);
+            last = NONE;
+        }
         return this;
     }
 
     public DataWriter type(String name) throws IOException {
         if (!name.isEmpty()) {
             newLine();
+            separate(name.charAt(0));
             append(name);
-            append(spec.separator);
+            if (!compact) {
+                append(spec.separator);
+            }
+            // always followed by '{'
+            last = NONE;
         }
         return this;
     }
 
     public DataWriter value(Object value) throws IOException {
-        if (value instanceof String && escape(value.toString())) {
-            append(spec.escapeChar);
-            append(value.toString());
-            append(spec.escapeChar);
-        } else {
-            append(value.toString());
+        if (value instanceof String) {
+            return value((String) value);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        }
+        if (value instanceof Double) {
+            return value(((Double) value).doubleValue());
+        }
+        if (value instanceof Float) {
+            return value(((Float) value).floatValue());
         }
+        return word(value.toString());
+    }
+
+    public DataWriter value(String value) throws IOException {
+        if (escape(value)) {
+            return escaped(value);
+        }
+        if (indents == 0) {
+            return word(value);
+        }
+        release();
+        pending = value;
+        return this;
+    }
+
+    public DataWriter value(long value) throws IOException {
+        newLine();
+        separate(value < 0 ? '-' : '0');
+        appendLong(value);
         newLine = true;
+        last = VALUE;
+        endValue();
         return this;
     }
 
+    public DataWriter value(float value) throws IOException {
+        return word(decimal(Float.toString(value)));
+    }
+
+    public DataWriter value(double value) throws IOException {
+        return word(decimal(Double.toString(value)));
+    }
+
+    public DataWriter value(boolean value) throws IOException {
+        return word(value ? "true" : "false");
+    }
+
     public DataWriter value(DataValue value) throws IOException {
         value.appendTo(this);
         return this;
     }
 
+    /**
+     * Passes any buffered text to the underlying Writer and flushes it.
+     */
+    public void flush() throws IOException {
+        release();
+        drain();
+        writer.flush();
+    }
+
     private void append(char c) throws IOException {
         if (c != CerealSpec.NONE) {
-            writer.append(c);
+            if (count == buffer.length) {
+                drain();
+            }
+            buffer[count++] = c;
         }
     }
 
     private void append(String string) throws IOException {
-        if (string.length() > 0) {
-            writer.append(string);
+        int length = string.length();
+        int offset = 0;
+        while (offset < length) {
+            if (count == buffer.length) {
+                drain();
+            }
+            int n = Math.min(length - offset, buffer.length - count);
+            string.getChars(offset, offset + n, buffer, count);
+            count += n;
+            offset += n;
+        }
+    }
+
+    private void append(char[] chars, int length) throws IOException {
+        if (length > buffer.length - count) {
+            drain();
+            if (length > buffer.length) {
+                writer.write(chars, 0, length);
+                return;
+            }
+        }
+        System.arraycopy(chars, 0, buffer, count, length);
+        count += length;
+    }
+
+    // writes the digits straight into the buffer rather than going through Long.toString
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            append(Long.toString(value));
+            return;
+        }
+
+        // 19 digits + sign
+        if (buffer.length - count < 20) {
+            drain();
+        }
+
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int end = count + digits(value);
+        int pos = end;
+        do {
+            buffer[--pos] = (char) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        count = end;
+    }
+
+    // writes the text enclosed in escape chars, doubling any escape chars within it
+    private DataWriter escaped(String value) throws IOException {
+        newLine();
+        separate(spec.escapeChar);
+        append(spec.escapeChar);
+        int start = 0;
+        for (int end; (end = value.indexOf(spec.escapeChar, start)) != -1; start = end + 1) {
+            append(value.substring(start, end + 1));
+            append(spec.escapeChar);
+        }
+        append(start == 0 ? value : value.substring(start));
+        append(spec.escapeChar);
+        newLine = true;
+        last = STRING;
+        endValue();
+        return this;
+    }
+
+    // writes an unescaped value
+    private DataWriter word(String value) throws IOException {
+        newLine();
+        separate(value.charAt(0));
+        append(value);
+        newLine = true;
+        last = VALUE;
+        endValue();
+        return this;
+    }
+
+    // writes a space if the next token would otherwise be read as part of the previous one
+    private void separate(char next) throws IOException {
+        if (last == KEY ? isKeyChar(next) : last == VALUE ? isValueChar(next) : last == STRING && next == spec.escapeChar) {
+            append(' ');
+        }
+    }
+
+    // writes the held back word as-is, now that the token after it isn't an untyped object
+    private void release() throws IOException {
+        if (pending != null) {
+            String word = pending;
+            pending = null;
+            word(word);
         }
     }
 
     private void newLine() throws IOException {
-        if (newLine && !spec.indent.isEmpty()) {
-            append('\n');
+        release();
+        if (newLine && !compact) {
             newLine = false;
-            indent();
+            last = NONE;
+            int length = 1 + indents * spec.indent.length();
+            if (length > lineBreak.length) {
+                lineBreak = lineBreak(spec.indent, indents * 2);
+            }
+            append(lineBreak, length);
         }
     }
 
-    private void indent() throws IOException {
-        if (!spec.indent.isEmpty()) {
-            for (int i = 0; i < indents; i++) {
-                append(spec.indent);
-            }
+    // hands the buffer to the writer once a root value has been fully written
+    private void endValue() throws IOException {
+        if (indents == 0) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            writer.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
         }
+        return digits;
     }
 
+    private static char[] lineBreak(String indent, int depth) {
+        char[] chars = new char[1 + depth * indent.length()];
+        chars[0] = '\n';
+        for (int i = 0; i < depth; i++) {
+            indent.getChars(0, indent.length(), chars, 1 + i * indent.length());
+        }
+        return chars;
+    }
+
+    // strings must be escaped unless the reader would read them back as the same string, ie they are a
+    // single word that doesn't look like a number or boolean
     private static boolean escape(String in) {
+        if (in.isEmpty() || in.equalsIgnoreCase("true") || in.equalsIgnoreCase("false")) {
+            return true;
+        }
+        boolean digits = true;
         for (int i = 0; i < in.length(); i++) {
             char c = in.charAt(i);
             if (!Character.isLetterOrDigit(c) && c != '_') {
                 return true;
             }
+            digits &= Character.isDigit(c);
         }
-        return false;
+        return digits;
+    }
+
+    // the reader only understands plain decimals so exponent notation (eg 1.0E-5) is expanded
+    private static String decimal(String number) {
+        if (number.indexOf('E') == -1) {
+            return number;
+        }
+        String plain = new BigDecimal(number).toPlainString();
+        return plain.indexOf('.') == -1 ? plain + ".0" : plain;
+    }
+
+    private static boolean isKeyChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isValueChar(char c) {
+        return isKeyChar(c) || c == '.' || c == '-';
     }
 
     @Override
     public void close() throws Exception {
+        release();
+        drain();
         writer.close();
     }
 }
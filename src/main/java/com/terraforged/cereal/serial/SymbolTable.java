@@ -0,0 +1,92 @@
+package com.terraforged.cereal.serial;
+
+/**
+ * A bounded cache of canonical String instances looked up directly from a char buffer, so repeated keys, type
+ * names and identifier-like values resolve to the same instance without allocating a new String each time.
+ *
+ * Tables can be shared between parsers, including across threads. Entries are only ever replaced by other
+ * immutable Strings, so a racing update can at worst evict an entry early.
+ */
+public class SymbolTable {
+
+    public static final int DEFAULT_CAPACITY = 512;
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    private final int mask;
+    private final int maxLength;
+    private final String[] symbols;
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity - the maximum number of symbols held (rounded up to a power of two)
+     * @param maxLength - strings longer than this are never cached
+     */
+    public SymbolTable(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+        this.symbols = new String[size];
+    }
+
+    public String get(char[] chars, int offset, int length) {
+        if (length == 0) {
+            return "";
+        }
+
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = hash(chars, offset, length);
+        int index = hash & mask;
+
+        // each hash maps to a pair of slots, the second only being used when the first is taken
+        String symbol = symbols[index];
+        if (symbol != null && matches(symbol, chars, offset, length)) {
+            return symbol;
+        }
+
+        int alt = index ^ 1;
+        String other = symbols[alt];
+        if (other != null && matches(other, chars, offset, length)) {
+            return other;
+        }
+
+        String value = new String(chars, offset, length);
+        if (symbol != null && other == null) {
+            symbols[alt] = value;
+        } else {
+            symbols[index] = value;
+        }
+        return value;
+    }
+
+    public void clear() {
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = null;
+        }
+    }
+
+    private static boolean matches(String symbol, char[] chars, int offset, int length) {
+        if (symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
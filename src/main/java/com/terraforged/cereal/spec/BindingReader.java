@@ -0,0 +1,113 @@
+package com.terraforged.cereal.spec;
+
+import com.terraforged.cereal.Cereal;
+import com.terraforged.cereal.serial.CerealParser;
+import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.value.DataValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deserializes objects directly from the parser's token stream. Objects whose spec provides a DataBinder are
+ * bound field by field as they are read, everything else falls back to reading a DataValue tree and passing
+ * it to the spec's DataFactory.
+ */
+public class BindingReader {
+
+    private final CerealParser parser;
+    private final DataReader reader;
+
+    public BindingReader(CerealParser parser) {
+        this.parser = parser;
+        this.reader = new DataReader(parser);
+    }
+
+    public <T> T read(Class<T> type, Context context) throws IOException {
+        CerealParser.Token token = parser.nextToken();
+        if (token == CerealParser.Token.TYPE) {
+            parser.nextToken();
+            return readObject(type, context);
+        }
+        if (token == CerealParser.Token.BEGIN_OBJECT) {
+            return readObject(type, context);
+        }
+        DataValue value = token == CerealParser.Token.END_DOCUMENT ? DataValue.NULL : reader.readValue(token);
+        return Cereal.deserialize(value.asObj(), type, context);
+    }
+
+    public <T> List<T> readList(Class<T> type, Context context) throws IOException {
+        CerealParser.Token token = parser.nextToken();
+        if (token == CerealParser.Token.BEGIN_LIST) {
+            return readElements(type, context);
+        }
+        DataValue value = token == CerealParser.Token.END_DOCUMENT ? DataValue.NULL : reader.readValue(token);
+        return Cereal.deserialize(value.asList(), type, context);
+    }
+
+    private <T> List<T> readElements(Class<T> type, Context context) throws IOException {
+        List<T> list = new ArrayList<>();
+        while (true) {
+            CerealParser.Token token = parser.nextToken();
+            if (token == CerealParser.Token.END_LIST) {
+                return list;
+            }
+            if (token == CerealParser.Token.TYPE) {
+                parser.nextToken();
+                list.add(readObject(type, context));
+            } else if (token == CerealParser.Token.BEGIN_OBJECT) {
+                list.add(readObject(type, context));
+            } else {
+                // non-object elements are dropped, matching Cereal.deserialize(DataList, ...)
+                reader.readValue(token);
+            }
+        }
+    }
+
+    // reads the object whose BEGIN_OBJECT token has just been pulled from the parser
+    private <T> T readObject(Class<T> type, Context context) throws IOException {
+        DataSpec<?> spec = context.getRegistry().findSpec(parser.getType());
+        if (spec != null) {
+            // memoized immutable objects are read as trees so they can be matched against equal objects
+            if (spec.getBinder() != null && !(spec.isImmutable() && context.isMemoized())) {
+                if (!type.isAssignableFrom(spec.getType())) {
+                    throw new RuntimeException("Invalid type: " + type);
+                }
+                return type.cast(bind(spec, context));
+            }
+        }
+        DataValue data = reader.readValue(CerealParser.Token.BEGIN_OBJECT);
+        return Cereal.deserialize(data.asObj(), type, context);
+    }
+
+    private <T> T bind(DataSpec<T> spec, Context context) throws IOException {
+        DataBinding<T> binding = spec.getBinder().begin(spec, context);
+        while (true) {
+            CerealParser.Token token = parser.nextToken();
+            if (token == CerealParser.Token.END_OBJECT) {
+                return binding.build();
+            }
+            String key = parser.getText();
+            Object value = readField(spec.getFieldType(key), parser.nextToken(), context);
+            binding.set(key, value);
+        }
+    }
+
+    private Object readField(Class<?> type, CerealParser.Token token, Context context) throws IOException {
+        if (type != null) {
+            switch (token) {
+                case TYPE:
+                    parser.nextToken();
+                    return readObject(type, context);
+                case BEGIN_OBJECT:
+                    return readObject(type, context);
+                case BEGIN_LIST:
+                    return readElements(type, context);
+                default:
+                    break;
+            }
+        }
+        return reader.readValue(token);
+    }
+}
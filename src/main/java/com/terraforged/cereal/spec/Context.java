@@ -1,13 +1,35 @@
 package com.terraforged.cereal.spec;
 
+import com.terraforged.cereal.value.DataInterner;
 import com.terraforged.cereal.value.DataObject;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Options for a (de)serialization. The built-in options are held as plain fields so that they can be checked
+ * cheaply per value - the DataObject is for extra, user-defined data. For compatibility, options that aren't
+ * set on the context are still read from the data's "skip_defaults" and "parallel_threshold" entries, including
+ * entries added after the context was created.
+ */
 public class Context {
 
     public static final Context NONE = new Context(DataObject.NULL_OBJ);
 
+    /**
+     * The default minimum number of elements a collection must hold before it is processed in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 256;
+
+    private static final int SKIP_DEFAULTS = 1;
+
     private final DataObject data;
 
+    private int flags;
+    private int parallelThreshold;
+    private SpecRegistry registry = null;
+    private Memo memo = null;
+
     public Context() {
         this(new DataObject());
     }
@@ -17,15 +39,122 @@ public class Context {
     }
 
     public Context skipDefaultValues() {
-        data.add("skip_defaults", true);
+        checkMutable();
+        flags |= SKIP_DEFAULTS;
         return this;
     }
 
     public boolean skipDefaults() {
-        return data.get("skip_defaults").asBool();
+        return (flags & SKIP_DEFAULTS) != 0 || (data.size() > 0 && data.get("skip_defaults").asBool());
+    }
+
+    public Context parallel() {
+        return parallel(PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Lists, arrays, collections and maps holding at least 'threshold' elements are (de)serialized on the
+     * ForkJoinPool. Factories and accessors (and any specs they call into) must be safe to run concurrently.
+     */
+    public Context parallel(int threshold) {
+        checkMutable();
+        parallelThreshold = Math.max(1, threshold);
+        return this;
+    }
+
+    public boolean isParallel() {
+        return getParallelThreshold() > 0;
+    }
+
+    /**
+     * The minimum list size for parallel processing, or 0 if parallel processing is disabled.
+     */
+    public int getParallelThreshold() {
+        int threshold = parallelThreshold;
+        if (threshold == 0 && data.size() > 0) {
+            return Math.max(0, data.get("parallel_threshold").asInt());
+        }
+        return threshold;
+    }
+
+    /**
+     * Uses the given registry in place of the global one for every spec lookup made with this context.
+     */
+    public Context registry(SpecRegistry registry) {
+        checkMutable();
+        this.registry = registry;
+        return this;
+    }
+
+    /**
+     * The registry set on this context, otherwise the current global registry.
+     */
+    public SpecRegistry getRegistry() {
+        SpecRegistry registry = this.registry;
+        return registry != null ? registry : DataSpecs.getRegistry();
+    }
+
+    /**
+     * Specs marked immutable create a single instance for all structurally equal objects they deserialize with
+     * this context. Objects are canonicalized in place with the context's DataInterner to find the equal ones,
+     * and readers build trees (rather than binding from the token stream) for immutable specs so that their
+     * objects can be shared. Instances are held until the context is discarded or memoize is called again.
+     */
+    public Context memoize() {
+        checkMutable();
+        memo = new Memo();
+        return this;
+    }
+
+    public boolean isMemoized() {
+        return memo != null;
+    }
+
+    /**
+     * The interner used by memoize, or null if the context isn't memoized.
+     */
+    public DataInterner getInterner() {
+        Memo memo = this.memo;
+        return memo != null ? memo.interner : null;
     }
 
     public DataObject getData() {
         return data;
     }
+
+    // the memoized instance for the (structurally) same data and spec, creating it if absent
+    <T> T memoized(DataSpec<T> spec, DataObject data, DataFactory<T> factory) {
+        Memo memo = this.memo;
+        DataObject key;
+        synchronized (memo) {
+            key = memo.interner.intern(data);
+            Object[] entry = memo.instances.get(key);
+            if (entry != null && entry[0] == spec) {
+                return spec.getType().cast(entry[1]);
+            }
+        }
+
+        // created outside the lock as the factory may deserialize (and memoize) its children
+        T t = factory.create(key, spec, this);
+        synchronized (memo) {
+            Object[] entry = memo.instances.putIfAbsent(key, new Object[]{spec, t});
+            if (entry != null && entry[0] == spec) {
+                return spec.getType().cast(entry[1]);
+            }
+        }
+        return t;
+    }
+
+    private void checkMutable() {
+        if (this == NONE) {
+            throw new UnsupportedOperationException("Context.NONE cannot be modified");
+        }
+    }
+
+    private static class Memo {
+
+        private final DataInterner interner = new DataInterner();
+        // canonical objects mapped to the spec and the instance it created
+        private final Map<DataObject, Object[]> instances = new IdentityHashMap<>();
+    }
 }
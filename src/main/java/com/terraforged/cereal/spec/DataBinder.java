@@ -0,0 +1,6 @@
+package com.terraforged.cereal.spec;
+
+public interface DataBinder<T> {
+
+    DataBinding<T> begin(DataSpec<T> spec, Context context);
+}
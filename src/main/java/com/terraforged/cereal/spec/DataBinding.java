@@ -0,0 +1,15 @@
+package com.terraforged.cereal.spec;
+
+/**
+ * Receives the fields of a single object in the order they appear in the document.
+ *
+ * Fields that the DataSpec declares with a type (addObj/addList with a Class) are handed over already
+ * deserialized - as an instance or a List of instances. All other fields are handed over as the DataValue
+ * read from the document.
+ */
+public interface DataBinding<T> {
+
+    void set(String key, Object value);
+
+    T build();
+}
@@ -1,10 +1,12 @@
 package com.terraforged.cereal.spec;
 
 import com.terraforged.cereal.Cereal;
+import com.terraforged.cereal.serial.DataWriter;
 import com.terraforged.cereal.value.DataList;
 import com.terraforged.cereal.value.DataObject;
 import com.terraforged.cereal.value.DataValue;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -20,17 +22,35 @@ public class DataSpec<T> {
     private final String name;
     private final Class<T> type;
     private final DataFactory<T> constructor;
+    private final DataBinder<T> binder;
+    private final boolean immutable;
     private final Map<String, DefaultData> defaults;
     private final Map<String, DataAccessor<T, ?>> accessors;
 
     public DataSpec(Builder<T> builder) {
         this.name = builder.name;
         this.type = builder.type;
-        this.constructor = builder.constructor;
+        this.binder = builder.binder;
+        this.constructor = builder.constructor != null ? builder.constructor : bindTree(builder.binder);
+        this.immutable = builder.immutable;
         this.defaults = Collections.unmodifiableMap(builder.defaults);
         this.accessors = Collections.unmodifiableMap(builder.accessors);
     }
 
+    /**
+     * For subclasses that implement serialize, deserialize (and optionally getBinder) directly rather than
+     * through accessors and a factory, such as the specs generated by the cereal annotation processor.
+     */
+    protected DataSpec(String name, Class<T> type, Map<String, DefaultData> defaults) {
+        this.name = name;
+        this.type = type;
+        this.binder = null;
+        this.constructor = null;
+        this.immutable = false;
+        this.defaults = Collections.unmodifiableMap(defaults);
+        this.accessors = Collections.emptyMap();
+    }
+
     public String getName() {
         return name;
     }
@@ -39,6 +59,32 @@ public class DataSpec<T> {
         return type;
     }
 
+    /**
+     * The binder used to create instances directly from the parser's token stream, or null if instances
+     * can only be created from a DataObject.
+     */
+    public DataBinder<T> getBinder() {
+        return binder;
+    }
+
+    /**
+     * Whether instances are immutable and so may be shared between equal objects, see {@link Context#memoize()}.
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * The declared type of the given field, or null if the field was not added with a type.
+     */
+    public Class<?> getFieldType(String key) {
+        DefaultData data = defaults.get(key);
+        if (data != null && data.hasSpec()) {
+            return data.getType();
+        }
+        return null;
+    }
+
     public <V> V get(String key, DataObject holder, Function<DataValue, V> accessor) {
         return accessor.apply(getValue(key, holder));
     }
@@ -87,6 +133,33 @@ public class DataSpec<T> {
         return DataValue.NULL;
     }
 
+    public void serialize(Object value, DataWriter writer, Context context) throws IOException {
+        if (!getType().isInstance(value)) {
+            return;
+        }
+
+        boolean skipDefaults = context.skipDefaults();
+        T t = getType().cast(value);
+        writer.type(name);
+        writer.beginObj();
+        for (Map.Entry<String, DataAccessor<T, ?>> e : accessors.entrySet()) {
+            Object o = e.getValue().access(t, context);
+            if (skipDefaults) {
+                // the default comparison needs the complete value so it can't be streamed
+                DataValue val = Cereal.serialize(o, context);
+                if (val.isNull() || val.equals(getDefault(e.getKey()))) {
+                    continue;
+                }
+                writer.name(e.getKey());
+                writer.value(val);
+            } else if (Cereal.isSerializable(o, context)) {
+                writer.name(e.getKey());
+                Cereal.serialize(o, writer, context);
+            }
+        }
+        writer.endObj();
+    }
+
     public T deserialize(DataObject data) {
         return deserialize(data, Context.NONE);
     }
@@ -96,6 +169,9 @@ public class DataSpec<T> {
     }
 
     public T deserialize(DataObject data, Context context) {
+        if (immutable && context.isMemoized()) {
+            return context.memoized(this, data, constructor);
+        }
         return constructor.create(data, this, context);
     }
 
@@ -130,6 +206,39 @@ public class DataSpec<T> {
         return DataValue.NULL;
     }
 
+    private Object bindValue(String key, DataValue value, Context context) {
+        Class<?> type = getFieldType(key);
+        if (type != null) {
+            if (value.isObj()) {
+                return Cereal.deserialize(value.asObj(), type, context);
+            }
+            if (value.isList()) {
+                return Cereal.deserialize(value.asList(), type, context);
+            }
+        }
+        return value;
+    }
+
+    private static <T> DataFactory<T> bindTree(DataBinder<T> binder) {
+        return (data, spec, context) -> {
+            DataBinding<T> binding = binder.begin(spec, context);
+            for (Map.Entry<String, DataValue> entry : data) {
+                binding.set(entry.getKey(), spec.bindValue(entry.getKey(), entry.getValue(), context));
+            }
+            return binding.build();
+        };
+    }
+
+    /**
+     * A spec built from the structure of the type: the components of a record, or the non-static, non-transient
+     * fields of a class with a no-args constructor (using getX/isX and setX methods where present). Property
+     * types may be primitives, Strings, enums, arrays, Lists, Sets, String-keyed Maps and other such classes.
+     * Defaults are taken from a default-constructed instance. Specs are derived once per class and cached.
+     */
+    public static <T> DataSpec<T> derive(Class<T> type) {
+        return DerivedSpec.of(type);
+    }
+
     public static <T> Builder<T> builder(Class<T> type, DataFactory<T> constructor) {
         return builder(type.getSimpleName(), type, constructor);
     }
@@ -138,18 +247,37 @@ public class DataSpec<T> {
         return new Builder<>(name, type, constructor);
     }
 
+    public static <T> Builder<T> builder(Class<T> type, DataBinder<T> binder) {
+        return builder(type.getSimpleName(), type, binder);
+    }
+
+    public static <T> Builder<T> builder(String name, Class<T> type, DataBinder<T> binder) {
+        return new Builder<>(name, type, binder);
+    }
+
     public static class Builder<T> {
 
         private final String name;
         private final Class<T> type;
         private final DataFactory<T> constructor;
+        private final DataBinder<T> binder;
         private final Map<String, DefaultData> defaults = new LinkedHashMap<>();
         private final Map<String, DataAccessor<T, ?>> accessors = new LinkedHashMap<>();
+        private boolean immutable = false;
 
         public Builder(String name, Class<T> type, DataFactory<T> constructor) {
+            this(name, type, constructor, null);
+        }
+
+        public Builder(String name, Class<T> type, DataBinder<T> binder) {
+            this(name, type, null, binder);
+        }
+
+        private Builder(String name, Class<T> type, DataFactory<T> constructor, DataBinder<T> binder) {
             this.name = name;
             this.type = type;
             this.constructor = constructor;
+            this.binder = binder;
         }
 
         public <V> Builder<T> add(String key, Object value, Function<T, V> accessor) {
@@ -220,8 +348,19 @@ public class DataSpec<T> {
             return this;
         }
 
+        /**
+         * Marks the spec's instances as immutable, allowing a memoizing Context to share one instance between
+         * all equal objects.
+         */
+        public Builder<T> immutable() {
+            immutable = true;
+            return this;
+        }
+
         public DataSpec<T> build() {
-            Objects.requireNonNull(constructor, "constructor");
+            if (binder == null) {
+                Objects.requireNonNull(constructor, "constructor");
+            }
             return new DataSpec<>(this);
         }
     }
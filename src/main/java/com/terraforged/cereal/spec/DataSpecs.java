@@ -1,19 +1,32 @@
 package com.terraforged.cereal.spec;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DataSpecs {
 
     private static final Map<String, DataSpec<?>> specs = new ConcurrentHashMap<>();
     private static final Map<Class<?>, SubSpec<?>> subSpecs = new ConcurrentHashMap<>();
     private static final Map<Class<?>, SubSpec<?>> subSpecLookup = new ConcurrentHashMap<>();
+    private static final AtomicInteger version = new AtomicInteger();
+    private static volatile SpecRegistry registry = null;
 
     public static void register(DataSpec<?> spec) {
         specs.put(spec.getName(), spec);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Registers the specs generated by the cereal annotation processor (for types annotated with
+     * {@link GenerateSpec}) that are visible to the class loader.
+     */
+    public static void registerGenerated(ClassLoader loader) {
+        for (DataSpec<?> spec : ServiceLoader.load(DataSpec.class, loader)) {
+            register(spec);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -21,6 +34,30 @@ public class DataSpecs {
         SubSpec<T> spec = (SubSpec<T>) subSpecs.computeIfAbsent(type, SubSpec::new);
         spec.register(subSpec.getType(), subSpec);
         subSpecLookup.put(subSpec.getType(), spec);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Incremented on every registration so that cached lookups (see getRegistry) can tell when they are stale.
+     */
+    public static int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * An immutable snapshot of the registered specs, replaced after each new registration. This is the registry
+     * used by a Context that hasn't been given one of its own.
+     */
+    public static SpecRegistry getRegistry() {
+        SpecRegistry registry = DataSpecs.registry;
+        int version = DataSpecs.version.get();
+        if (registry == null || registry.getVersion() != version) {
+            // the version is read before the maps are copied so a registration made during the copy gets
+            // picked up by the next call
+            registry = new SpecRegistry(version, specs, subSpecs, subSpecLookup);
+            DataSpecs.registry = registry;
+        }
+        return registry;
     }
 
     public static boolean hasSpec(String name) {
@@ -47,17 +84,11 @@ public class DataSpecs {
         return subSpecLookup.get(instance.getClass());
     }
 
-    public static <T> List<DataSpec<?>> getSpecs(Class<T> type) {
-        List<DataSpec<?>> all = new ArrayList<>(specs.values());
-        all.sort(Comparator.comparing(DataSpec::getName));
-
-        List<DataSpec<?>> list = new ArrayList<>(all.size());
-        for (DataSpec<?> spec : all) {
-            if (type.isAssignableFrom(spec.getType())) {
-                list.add(spec);
-            }
-        }
+    public static SubSpec<?> getSubSpecFor(Class<?> type) {
+        return subSpecLookup.get(type);
+    }
 
-        return list;
+    public static <T> List<DataSpec<?>> getSpecs(Class<T> type) {
+        return getRegistry().getSpecs(type);
     }
 }
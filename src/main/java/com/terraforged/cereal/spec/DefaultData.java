@@ -27,6 +27,10 @@ public class DefaultData {
         this(Object.class, supplier);
     }
 
+    public Class<?> getType() {
+        return type;
+    }
+
     public boolean hasSpec() {
         return type != Object.class;
     }
@@ -39,6 +43,10 @@ public class DefaultData {
         return DataSpecs.getSpecs(type);
     }
 
+    public List<DataSpec<?>> getSpecs(Context context) {
+        return context.getRegistry().getSpecs(type);
+    }
+
     public DataValue getValue() {
         return supplier.get();
     }
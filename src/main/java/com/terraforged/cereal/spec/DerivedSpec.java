@@ -0,0 +1,633 @@
+package com.terraforged.cereal.spec;
+
+import com.terraforged.cereal.Cereal;
+import com.terraforged.cereal.value.DataList;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds and caches the specs returned by {@link DataSpec#derive(Class)}.
+ *
+ * Getters, setters and no-args constructors are bound to Function/BiConsumer/Supplier instances through the
+ * LambdaMetafactory so they're called like handwritten lambdas. Fields without a getter/setter and record
+ * constructors (which have no fixed-arity functional interface to bind to) are invoked through MethodHandles.
+ *
+ * The private lookup (Java 9) and record (Java 16) APIs are called reflectively so that the class still loads on
+ * the older runtimes the rest of the library supports, where deriving fails with an explanatory exception.
+ */
+final class DerivedSpec {
+
+    private static final ClassValue<DataSpec<?>> CACHE = new ClassValue<DataSpec<?>>() {
+        @Override
+        protected DataSpec<?> computeValue(Class<?> type) {
+            return derive(type);
+        }
+    };
+
+    private static final Method PRIVATE_LOOKUP_IN = method(MethodHandles.class, "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+    private static final Method IS_RECORD = method(Class.class, "isRecord");
+    private static final Method GET_RECORD_COMPONENTS = method(Class.class, "getRecordComponents");
+    private static final Method COMPONENT_NAME = method("java.lang.reflect.RecordComponent", "getName");
+    private static final Method COMPONENT_TYPE = method("java.lang.reflect.RecordComponent", "getType");
+    private static final Method COMPONENT_GENERIC_TYPE = method("java.lang.reflect.RecordComponent", "getGenericType");
+    private static final Method COMPONENT_ACCESSOR = method("java.lang.reflect.RecordComponent", "getAccessor");
+
+    private DerivedSpec() {
+
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> DataSpec<T> of(Class<T> type) {
+        return (DataSpec<T>) CACHE.get(type);
+    }
+
+    private static <T> DataSpec<T> derive(Class<T> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || type.isEnum() || Modifier.isAbstract(type.getModifiers())) {
+            throw new RuntimeException("Cannot derive a spec for " + type);
+        }
+
+        try {
+            if (IS_RECORD != null && (boolean) IS_RECORD.invoke(type)) {
+                return deriveRecord(type);
+            }
+            return deriveClass(type);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException("Failed to derive a spec for " + type, t);
+        }
+    }
+
+    private static <T> DataSpec<T> deriveRecord(Class<T> type) throws Throwable {
+        MethodHandles.Lookup lookup = lookup(type);
+        Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+        Class<?>[] parameters = new Class<?>[components.length];
+        Property[] properties = new Property[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Object component = components[i];
+            String name = (String) COMPONENT_NAME.invoke(component);
+            Type genericType = (Type) COMPONENT_GENERIC_TYPE.invoke(component);
+            Method accessor = (Method) COMPONENT_ACCESSOR.invoke(component);
+            parameters[i] = (Class<?>) COMPONENT_TYPE.invoke(component);
+            properties[i] = new Property(name, codec(genericType), getter(lookup, accessor), null, zero(parameters[i]));
+        }
+
+        MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameters))
+                .asSpreader(Object[].class, parameters.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+
+        DataFactory<T> factory = (data, spec, context) -> {
+            Object[] args = new Object[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                Property property = properties[i];
+                DataValue value = data.get(property.name);
+                Object arg = value.isNonNull() ? property.codec.read(value, context) : null;
+                args[i] = arg != null ? arg : property.zero;
+            }
+            try {
+                return type.cast((Object) constructor.invokeExact(args));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+
+        return build(type, factory, properties, null);
+    }
+
+    private static <T> DataSpec<T> deriveClass(Class<T> type) throws Throwable {
+        MethodHandles.Lookup lookup = lookup(type);
+        Supplier<Object> constructor = constructor(lookup, type);
+
+        List<Property> list = new ArrayList<>();
+        for (Field field : fields(type)) {
+            MethodHandles.Lookup owner = lookup(field.getDeclaringClass());
+            Method getter = findGetter(field);
+            Method setter = findSetter(field);
+            if (setter == null && Modifier.isFinal(field.getModifiers())) {
+                throw new RuntimeException("Cannot derive a spec for " + type + ": final field '" + field.getName() + "' has no setter");
+            }
+            Function<Object, Object> get = getter != null ? getter(owner, getter) : getter(owner, field);
+            BiConsumer<Object, Object> set = setter != null ? setter(owner, setter) : setter(owner, field);
+            list.add(new Property(field.getName(), codec(field.getGenericType()), get, set, null));
+        }
+
+        Property[] properties = list.toArray(new Property[0]);
+        DataFactory<T> factory = (data, spec, context) -> {
+            T t = type.cast(constructor.get());
+            for (Property property : properties) {
+                DataValue value = data.get(property.name);
+                if (value.isNonNull()) {
+                    property.setter.accept(t, property.codec.read(value, context));
+                }
+            }
+            return t;
+        };
+
+        return build(type, factory, properties, constructor.get());
+    }
+
+    private static <T> DataSpec<T> build(Class<T> type, DataFactory<T> factory, Property[] properties, Object defaults) {
+        DataSpec.Builder<T> builder = DataSpec.builder(type, factory);
+        for (Property property : properties) {
+            DataValue value = DataValue.NULL;
+            if (defaults != null) {
+                value = property.codec.write(property.getter.apply(defaults), Context.NONE);
+            } else if (property.zero != null) {
+                value = property.codec.write(property.zero, Context.NONE);
+            }
+            builder.add(property.name, value, (owner, context) -> property.codec.write(property.getter.apply(owner), context));
+        }
+        return builder.build();
+    }
+
+    // instance fields from the top of the hierarchy down, in declaration order
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        if (type.getSuperclass() != null && type.getSuperclass() != Object.class) {
+            fields.addAll(fields(type.getSuperclass()));
+        }
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static Method findGetter(Field field) {
+        String name = capitalize(field.getName());
+        Method method = findMethod(field.getDeclaringClass(), "get" + name);
+        if (method == null && field.getType() == boolean.class) {
+            method = findMethod(field.getDeclaringClass(), "is" + name);
+        }
+        return method != null && method.getReturnType() == field.getType() ? method : null;
+    }
+
+    private static Method findSetter(Field field) {
+        return findMethod(field.getDeclaringClass(), "set" + capitalize(field.getName()), field.getType());
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameters) {
+        try {
+            Method method = type.getDeclaredMethod(name, parameters);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> type) throws IllegalAccessException {
+        if (PRIVATE_LOOKUP_IN == null) {
+            throw new RuntimeException("Cannot derive a spec for " + type + ": deriving specs requires Java 9 or later");
+        }
+        try {
+            return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, type, MethodHandles.lookup());
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IllegalAccessException) {
+                throw new RuntimeException("Cannot derive a spec for " + type + ": its package is not open to Cereal", e.getCause());
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    // null if the method doesn't exist in the running version of Java
+    private static Method method(Class<?> owner, String name, Class<?>... parameters) {
+        try {
+            return owner.getMethod(name, parameters);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method method(String owner, String name) {
+        try {
+            return method(Class.forName(owner), name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(MethodHandles.Lookup lookup, Class<?> type) throws Throwable {
+        MethodHandle handle;
+        try {
+            handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("Cannot derive a spec for " + type + ": it has no no-args constructor");
+        }
+        return (Supplier<Object>) LambdaMetafactory.metafactory(
+                lookup,
+                "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                handle,
+                MethodType.methodType(type)
+        ).getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(MethodHandles.Lookup lookup, Method method) throws Throwable {
+        return (Function<Object, Object>) LambdaMetafactory.metafactory(
+                lookup,
+                "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                lookup.unreflect(method),
+                MethodType.methodType(box(method.getReturnType()), method.getDeclaringClass())
+        ).getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Method method) throws Throwable {
+        return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                lookup.unreflect(method),
+                MethodType.methodType(void.class, method.getDeclaringClass(), box(method.getParameterTypes()[0]))
+        ).getTarget().invokeExact();
+    }
+
+    // field access can't be bound by the LambdaMetafactory so the lambda calls the MethodHandle instead
+    private static Function<Object, Object> getter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        MethodHandle handle = lookup.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+        return owner -> {
+            try {
+                return (Object) handle.invokeExact(owner);
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Field field) throws IllegalAccessException {
+        MethodHandle handle = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (owner, value) -> {
+            try {
+                handle.invokeExact(owner, value);
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        };
+    }
+
+    private static Codec codec(Type type) {
+        if (type instanceof WildcardType) {
+            return codec(((WildcardType) type).getUpperBounds()[0]);
+        }
+
+        if (type instanceof TypeVariable) {
+            return codec(((TypeVariable<?>) type).getBounds()[0]);
+        }
+
+        if (type instanceof GenericArrayType) {
+            Type component = ((GenericArrayType) type).getGenericComponentType();
+            return new ArrayCodec(raw(component), codec(component));
+        }
+
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (Collection.class.isAssignableFrom(raw)) {
+                return new CollectionCodec(raw, codec(arguments[0]));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                if (raw(arguments[0]) != String.class) {
+                    throw new RuntimeException("Unsupported map key type: " + arguments[0]);
+                }
+                return new MapCodec(raw, codec(arguments[1]));
+            }
+            return codec(raw);
+        }
+
+        Class<?> c = (Class<?>) type;
+        if (c == int.class || c == Integer.class) {
+            return new ValueCodec(v -> DataValue.of(((Number) v).longValue()), DataValue::asInt);
+        }
+        if (c == long.class || c == Long.class) {
+            return new ValueCodec(v -> DataValue.of(((Number) v).longValue()), DataValue::asLong);
+        }
+        if (c == short.class || c == Short.class) {
+            return new ValueCodec(v -> DataValue.of(((Number) v).longValue()), v -> (short) v.asInt());
+        }
+        if (c == byte.class || c == Byte.class) {
+            return new ValueCodec(v -> DataValue.of(((Number) v).longValue()), DataValue::asByte);
+        }
+        if (c == float.class || c == Float.class) {
+            return new ValueCodec(v -> DataValue.of(((Number) v).floatValue()), DataValue::asFloat);
+        }
+        if (c == double.class || c == Double.class) {
+            return new ValueCodec(v -> DataValue.of(((Number) v).doubleValue()), DataValue::asDouble);
+        }
+        if (c == boolean.class || c == Boolean.class) {
+            return new ValueCodec(DataValue::of, DataValue::asBool);
+        }
+        if (c == char.class || c == Character.class) {
+            return new ValueCodec(v -> DataValue.of(v.toString()), v -> v.asString().isEmpty() ? '\0' : v.asString().charAt(0));
+        }
+        if (c == String.class) {
+            return new ValueCodec(DataValue::of, DataValue::asString);
+        }
+        if (c.isEnum()) {
+            return new ValueCodec(v -> DataValue.of(((Enum<?>) v).name()), v -> enumValue(c, v.asString()));
+        }
+        if (DataValue.class.isAssignableFrom(c)) {
+            return new ValueCodec(v -> (DataValue) v, v -> c.isInstance(v) ? v : null);
+        }
+        if (c.isArray()) {
+            return new ArrayCodec(c.getComponentType(), codec(c.getComponentType()));
+        }
+        if (c == Object.class || Collection.class.isAssignableFrom(c) || Map.class.isAssignableFrom(c)) {
+            throw new RuntimeException("Unsupported type: " + c + " (collections and maps need type arguments)");
+        }
+        return new ObjectCodec(c);
+    }
+
+    private static Class<?> raw(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(raw(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return raw(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return raw(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Object enumValue(Class<?> type, String name) {
+        for (Object constant : TypeStrategy.of(type).getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    private static Object zero(Class<?> type) {
+        return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return type.isPrimitive() ? zero(type).getClass() : type;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static class Property {
+
+        private final String name;
+        private final Codec codec;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        // the value of a record component missing from the data
+        private final Object zero;
+
+        private Property(String name, Codec codec, Function<Object, Object> getter, BiConsumer<Object, Object> setter, Object zero) {
+            this.name = name;
+            this.codec = codec;
+            this.getter = getter;
+            this.setter = setter;
+            this.zero = zero;
+        }
+    }
+
+    /**
+     * Converts between the values of a property's type and DataValues. Nulls are written as DataValue.NULL
+     * and values that can't be read as the type are read as null.
+     */
+    private interface Codec {
+
+        DataValue write(Object value, Context context);
+
+        Object read(DataValue value, Context context);
+    }
+
+    private static class ValueCodec implements Codec {
+
+        private final Function<Object, DataValue> writer;
+        private final Function<DataValue, Object> reader;
+
+        private ValueCodec(Function<Object, DataValue> writer, Function<DataValue, Object> reader) {
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        @Override
+        public DataValue write(Object value, Context context) {
+            return value == null ? DataValue.NULL : writer.apply(value);
+        }
+
+        @Override
+        public Object read(DataValue value, Context context) {
+            return reader.apply(value);
+        }
+    }
+
+    // objects with a registered spec are handled by Cereal, anything else by its own derived spec
+    private static class ObjectCodec implements Codec {
+
+        private final Class<?> type;
+
+        private ObjectCodec(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public DataValue write(Object value, Context context) {
+            if (value == null) {
+                return DataValue.NULL;
+            }
+            DataValue data = Cereal.serialize(value, context);
+            if (data.isNonNull()) {
+                return data;
+            }
+            return of(value.getClass()).serialize(value, context);
+        }
+
+        @Override
+        public Object read(DataValue value, Context context) {
+            if (!value.isObj()) {
+                return null;
+            }
+            DataObject data = value.asObj();
+            SpecRegistry registry = context.getRegistry();
+            if (registry.hasSpec(data.getType()) || registry.getSubSpec(type) != null) {
+                return Cereal.deserialize(data, type, context);
+            }
+            return of(type).deserialize(data, context);
+        }
+    }
+
+    private static class CollectionCodec implements Codec {
+
+        private final Supplier<Collection<Object>> factory;
+        private final Codec element;
+
+        private CollectionCodec(Class<?> type, Codec element) {
+            this.element = element;
+            if (type.isAssignableFrom(ArrayList.class)) {
+                this.factory = ArrayList::new;
+            } else if (type.isAssignableFrom(LinkedHashSet.class)) {
+                this.factory = LinkedHashSet::new;
+            } else if (type.isAssignableFrom(TreeSet.class)) {
+                this.factory = TreeSet::new;
+            } else {
+                throw new RuntimeException("Unsupported collection type: " + type);
+            }
+        }
+
+        @Override
+        public DataValue write(Object value, Context context) {
+            if (value == null) {
+                return DataValue.NULL;
+            }
+            Collection<?> collection = (Collection<?>) value;
+            DataList list = new DataList(collection.size());
+            for (Object child : collection) {
+                list.add(element.write(child, context));
+            }
+            return list;
+        }
+
+        @Override
+        public Object read(DataValue value, Context context) {
+            if (!value.isList()) {
+                return null;
+            }
+            Collection<Object> collection = factory.get();
+            for (DataValue child : value.asList()) {
+                Object result = element.read(child, context);
+                if (result != null) {
+                    collection.add(result);
+                }
+            }
+            return collection;
+        }
+    }
+
+    private static class MapCodec implements Codec {
+
+        private final boolean sorted;
+        private final Codec element;
+
+        private MapCodec(Class<?> type, Codec element) {
+            this.element = element;
+            if (type.isAssignableFrom(LinkedHashMap.class)) {
+                this.sorted = false;
+            } else if (type.isAssignableFrom(TreeMap.class)) {
+                this.sorted = true;
+            } else {
+                throw new RuntimeException("Unsupported map type: " + type);
+            }
+        }
+
+        @Override
+        public DataValue write(Object value, Context context) {
+            if (value == null) {
+                return DataValue.NULL;
+            }
+            Map<?, ?> map = (Map<?, ?>) value;
+            DataObject object = new DataObject("", map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                object.add(entry.getKey().toString(), element.write(entry.getValue(), context));
+            }
+            return object;
+        }
+
+        @Override
+        public Object read(DataValue value, Context context) {
+            if (!value.isObj()) {
+                return null;
+            }
+            Map<String, Object> map = sorted ? new TreeMap<>() : new LinkedHashMap<>();
+            for (Map.Entry<String, DataValue> entry : value.asObj()) {
+                Object result = element.read(entry.getValue(), context);
+                if (result != null) {
+                    map.put(entry.getKey(), result);
+                }
+            }
+            return map;
+        }
+    }
+
+    private static class ArrayCodec implements Codec {
+
+        private final Class<?> type;
+        private final Codec element;
+
+        private ArrayCodec(Class<?> type, Codec element) {
+            this.type = type;
+            this.element = element;
+        }
+
+        @Override
+        public DataValue write(Object value, Context context) {
+            if (value == null) {
+                return DataValue.NULL;
+            }
+            int length = Array.getLength(value);
+            DataList list = new DataList(length);
+            for (int i = 0; i < length; i++) {
+                list.add(element.write(Array.get(value, i), context));
+            }
+            return list;
+        }
+
+        @Override
+        public Object read(DataValue value, Context context) {
+            if (!value.isList()) {
+                return null;
+            }
+            DataList list = value.asList();
+            Object array = Array.newInstance(type, list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Object result = element.read(list.get(i), context);
+                if (result != null) {
+                    Array.set(array, i, result);
+                }
+            }
+            return array;
+        }
+    }
+}
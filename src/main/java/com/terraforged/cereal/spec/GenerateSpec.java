@@ -0,0 +1,28 @@
+package com.terraforged.cereal.spec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class for the cereal annotation processor, which generates a DataSpec named '{TypeName}DataSpec' in
+ * the same package. The generated spec reads and writes the class's own fields directly.
+ *
+ * The class needs a non-private no-args constructor - it's used to create instances and to find the default
+ * value of each field. Static and transient fields are ignored, all other fields must be non-private and
+ * non-final, and be a primitive, boxed primitive, String, enum, another spec'd type or a List of those.
+ *
+ * Generated specs are registered with {@code {TypeName}DataSpec.register()}, or all at once with
+ * {@link DataSpecs#registerGenerated(ClassLoader)}.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateSpec {
+
+    /**
+     * The spec name, defaults to the class's simple name. Instances are matched to their spec by simple name,
+     * so classes given a different name should implement SpecName.
+     */
+    String value() default "";
+}
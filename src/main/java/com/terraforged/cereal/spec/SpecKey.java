@@ -0,0 +1,16 @@
+package com.terraforged.cereal.spec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the key a field of a {@link GenerateSpec} class is written under, in place of the field's name.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface SpecKey {
+
+    String value();
+}
@@ -0,0 +1,205 @@
+package com.terraforged.cereal.spec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * An immutable set of specs. The name, sub-spec and supertype tables are built once when the registry is
+ * created and the serialization strategy of each class is resolved on first use and cached, so lookups take
+ * no locks and never see a registration half-way through.
+ *
+ * The static DataSpecs methods register into a global registry, see {@link DataSpecs#getRegistry()}. Separate
+ * registries are created with {@link #builder()} and used by setting them on the Context.
+ */
+public final class SpecRegistry {
+
+    private final int version;
+    private final Map<String, DataSpec<?>> specs;
+    private final Map<Class<?>, SubSpec<?>> subSpecs;
+    private final Map<Class<?>, SubSpec<?>> subSpecLookup;
+    private final Map<Class<?>, List<DataSpec<?>>> candidates;
+    private final ClassValue<TypeStrategy> strategies = new ClassValue<TypeStrategy>() {
+        @Override
+        protected TypeStrategy computeValue(Class<?> type) {
+            return new TypeStrategy(type, SpecRegistry.this);
+        }
+    };
+
+    SpecRegistry(int version, Map<String, DataSpec<?>> specs, Map<Class<?>, SubSpec<?>> subSpecs, Map<Class<?>, SubSpec<?>> subSpecLookup) {
+        this.version = version;
+        this.specs = new HashMap<>(specs);
+        this.subSpecs = new HashMap<>(subSpecs);
+        this.subSpecLookup = new HashMap<>(subSpecLookup);
+        this.candidates = candidates(specs.values());
+    }
+
+    /**
+     * The DataSpecs version the registry was created from, or -1 if it was created by a Builder.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean hasSpec(String name) {
+        return specs.containsKey(name);
+    }
+
+    public DataSpec<?> getSpec(String name) {
+        DataSpec<?> spec = specs.get(name);
+        if (spec == null) {
+            throw new NullPointerException("Missing spec: '" + name + '\'');
+        }
+        return spec;
+    }
+
+    /**
+     * The spec registered under the name, or null.
+     */
+    public DataSpec<?> findSpec(String name) {
+        return specs.get(name);
+    }
+
+    public boolean isSubSpec(Object instance) {
+        return subSpecLookup.containsKey(instance.getClass());
+    }
+
+    public SubSpec<?> getSubSpec(Class<?> type) {
+        return subSpecs.get(type);
+    }
+
+    public SubSpec<?> getSubSpec(Object instance) {
+        return subSpecLookup.get(instance.getClass());
+    }
+
+    public SubSpec<?> getSubSpecFor(Class<?> type) {
+        return subSpecLookup.get(type);
+    }
+
+    /**
+     * The specs whose type is assignable to the given type, sorted by name. The returned list is shared and
+     * cannot be modified.
+     */
+    public List<DataSpec<?>> getSpecs(Class<?> type) {
+        return candidates.getOrDefault(type, Collections.emptyList());
+    }
+
+    public Collection<DataSpec<?>> getSpecs() {
+        return Collections.unmodifiableCollection(specs.values());
+    }
+
+    public TypeStrategy getStrategy(Class<?> type) {
+        return strategies.get(type);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder holding the specs of the given registry, eg to extend the global registry with extra specs.
+     */
+    public static Builder builder(SpecRegistry registry) {
+        Builder builder = new Builder();
+        for (DataSpec<?> spec : registry.specs.values()) {
+            builder.register(spec);
+        }
+        for (SubSpec<?> subSpec : registry.subSpecs.values()) {
+            builder.registerSub(subSpec);
+        }
+        return builder;
+    }
+
+    // every supertype (including the type itself) mapped to the specs assignable to it
+    private static Map<Class<?>, List<DataSpec<?>>> candidates(Collection<DataSpec<?>> specs) {
+        List<DataSpec<?>> sorted = new ArrayList<>(specs);
+        sorted.sort(Comparator.comparing(DataSpec::getName));
+
+        Map<Class<?>, List<DataSpec<?>>> candidates = new HashMap<>();
+        for (DataSpec<?> spec : sorted) {
+            addSupertypes(spec.getType(), spec, candidates);
+        }
+        for (Map.Entry<Class<?>, List<DataSpec<?>>> entry : candidates.entrySet()) {
+            List<DataSpec<?>> list = entry.getValue();
+            // a spec reached through several paths (eg an interface implemented twice in the hierarchy) is listed once
+            List<DataSpec<?>> unique = new ArrayList<>(list.size());
+            for (DataSpec<?> spec : list) {
+                if (unique.isEmpty() || unique.get(unique.size() - 1) != spec) {
+                    unique.add(spec);
+                }
+            }
+            entry.setValue(Collections.unmodifiableList(unique));
+        }
+        return candidates;
+    }
+
+    private static void addSupertypes(Class<?> type, DataSpec<?> spec, Map<Class<?>, List<DataSpec<?>>> candidates) {
+        if (type == null) {
+            return;
+        }
+        candidates.computeIfAbsent(type, t -> new ArrayList<>()).add(spec);
+        addSupertypes(type.getSuperclass(), spec, candidates);
+        for (Class<?> i : type.getInterfaces()) {
+            addSupertypes(i, spec, candidates);
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<String, DataSpec<?>> specs = new LinkedHashMap<>();
+        private final Map<Class<?>, List<DataSpec<?>>> subSpecs = new LinkedHashMap<>();
+
+        private Builder() {
+
+        }
+
+        public Builder register(DataSpec<?> spec) {
+            specs.put(spec.getName(), spec);
+            return this;
+        }
+
+        /**
+         * Registers the specs generated by the cereal annotation processor that are visible to the class loader.
+         */
+        public Builder registerGenerated(ClassLoader loader) {
+            for (DataSpec<?> spec : ServiceLoader.load(DataSpec.class, loader)) {
+                register(spec);
+            }
+            return this;
+        }
+
+        public <T, V extends T> Builder registerSub(Class<T> type, DataSpec<V> subSpec) {
+            subSpecs.computeIfAbsent(type, t -> new ArrayList<>()).add(subSpec);
+            return this;
+        }
+
+        private Builder registerSub(SubSpec<?> subSpec) {
+            subSpecs.computeIfAbsent(subSpec.getSuperType(), t -> new ArrayList<>()).addAll(subSpec.getChildren());
+            return this;
+        }
+
+        /**
+         * Creates the registry. Sub-specs are created afresh so later changes to the builder don't affect it.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public SpecRegistry build() {
+            Map<Class<?>, SubSpec<?>> subSpecs = new HashMap<>();
+            Map<Class<?>, SubSpec<?>> subSpecLookup = new HashMap<>();
+            for (Map.Entry<Class<?>, List<DataSpec<?>>> entry : this.subSpecs.entrySet()) {
+                SubSpec subSpec = new SubSpec(entry.getKey());
+                for (DataSpec<?> child : entry.getValue()) {
+                    subSpec.register(child.getType(), child);
+                    subSpecLookup.put(child.getType(), subSpec);
+                }
+                subSpecs.put(entry.getKey(), subSpec);
+            }
+            return new SpecRegistry(-1, specs, subSpecs, subSpecLookup);
+        }
+    }
+}
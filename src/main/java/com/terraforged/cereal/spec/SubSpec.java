@@ -1,14 +1,27 @@
 package com.terraforged.cereal.spec;
 
+import com.terraforged.cereal.serial.DataWriter;
+import com.terraforged.cereal.value.DataDouble;
+import com.terraforged.cereal.value.DataFloat;
+import com.terraforged.cereal.value.DataLong;
 import com.terraforged.cereal.value.DataObject;
 import com.terraforged.cereal.value.DataValue;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class SubSpec<T> {
     private final Class<T> superType;
     private final Map<Class<? extends T>, DataSpec<? extends T>> children = new ConcurrentHashMap<>();
+    private final Map<Class<? extends T>, DataSpec<? extends T>> registered = new LinkedHashMap<>();
+
+    private volatile Index<T> index = null;
 
     public SubSpec(Class<T> type) {
         this.superType = type;
@@ -19,21 +32,47 @@ public class SubSpec<T> {
     }
 
     public <V extends T> SubSpec<T> register(Class<V> type, DataSpec<V> spec) {
-        children.put(type, spec);
+        synchronized (registered) {
+            children.put(type, spec);
+            registered.put(type, spec);
+            index = null;
+        }
         return this;
     }
 
+    // the registered children in registration order
+    List<DataSpec<? extends T>> getChildren() {
+        synchronized (registered) {
+            return new ArrayList<>(registered.values());
+        }
+    }
+
     public T deserialize(DataObject data, Context context) {
-        for (DataSpec<? extends T> spec : children.values()) {
-            if (matches(data, spec)) {
-                try {
-                    return spec.deserialize(data, context);
-                } catch (Throwable t) {
+        return resolve(data).deserialize(data, context);
+    }
+
+    /**
+     * Finds the child spec for the given data. Objects whose type name matches a child spec's name are resolved
+     * directly. Otherwise the child whose default keys and value types best match the object's fields is chosen -
+     * an exact match is found by fingerprint, partial matches fall back to a scan in registration order and
+     * prefer the child that matches the most fields.
+     */
+    public DataSpec<? extends T> resolve(DataObject data) {
+        return getIndex().resolve(data, superType);
+    }
 
+    private Index<T> getIndex() {
+        Index<T> index = this.index;
+        if (index == null) {
+            synchronized (registered) {
+                index = this.index;
+                if (index == null) {
+                    index = new Index<>(registered.values());
+                    this.index = index;
                 }
             }
         }
-        throw new RuntimeException("Unsupported data: " + data);
+        return index;
     }
 
     public <V extends T> DataValue serialize(V value, Context context) {
@@ -44,6 +83,160 @@ public class SubSpec<T> {
         return spec.serialize(value, context);
     }
 
+    public <V extends T> void serialize(V value, DataWriter writer, Context context) throws IOException {
+        DataSpec<? extends T> spec = children.get(value.getClass());
+        if (spec == null) {
+            throw new RuntimeException("Missing sub-spec for type: " + value.getClass());
+        }
+        spec.serialize(value, writer, context);
+    }
+
+    private static final int KIND_NULL = 0;
+    private static final int KIND_OBJ = 1;
+    private static final int KIND_LIST = 2;
+    private static final int KIND_INTEGER = 3;
+    private static final int KIND_DECIMAL = 4;
+    private static final int KIND_BOOL = 5;
+    private static final int KIND_STRING = 6;
+    private static final int KIND_OTHER = 7;
+
+    private static int kindOf(DataValue value) {
+        if (value.isNull()) {
+            return KIND_NULL;
+        }
+        if (value.isObj()) {
+            return KIND_OBJ;
+        }
+        if (value.isList()) {
+            return KIND_LIST;
+        }
+        if (value instanceof DataLong) {
+            return KIND_INTEGER;
+        }
+        if (value instanceof DataDouble || value instanceof DataFloat) {
+            return KIND_DECIMAL;
+        }
+        if (value.isBool()) {
+            return KIND_BOOL;
+        }
+        if (value.isString() || value.isEnum()) {
+            return KIND_STRING;
+        }
+        return KIND_OTHER;
+    }
+
+    private static long fingerprint(String key, int kind) {
+        long hash = key.hashCode() * 31L + kind;
+        hash *= 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static class Candidate<T> {
+
+        private final DataSpec<? extends T> spec;
+        private final String[] keys;
+        private final int[] kinds;
+        private final long fingerprint;
+
+        private Candidate(DataSpec<? extends T> spec) {
+            Map<String, DefaultData> defaults = spec.getDefaults();
+            this.spec = spec;
+            this.keys = new String[defaults.size()];
+            this.kinds = new int[defaults.size()];
+
+            int i = 0;
+            long fingerprint = 0L;
+            for (Map.Entry<String, DefaultData> entry : defaults.entrySet()) {
+                keys[i] = entry.getKey();
+                kinds[i] = kindOf(entry.getValue().getValue());
+                fingerprint += fingerprint(keys[i], kinds[i]);
+                i++;
+            }
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean matches(DataObject data) {
+            for (int i = 0; i < keys.length; i++) {
+                DataValue value = data.get(keys[i]);
+                if (value.isNull() || kindOf(value) != kinds[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Index<T> {
+
+        private final List<Candidate<T>> candidates = new ArrayList<>();
+        private final Map<String, DataSpec<? extends T>> names = new HashMap<>();
+        private final Map<Long, List<Candidate<T>>> fingerprints = new HashMap<>();
+
+        private Index(Collection<DataSpec<? extends T>> specs) {
+            for (DataSpec<? extends T> spec : specs) {
+                Candidate<T> candidate = new Candidate<>(spec);
+                candidates.add(candidate);
+                names.putIfAbsent(spec.getName(), spec);
+                fingerprints.computeIfAbsent(candidate.fingerprint, k -> new ArrayList<>(1)).add(candidate);
+            }
+        }
+
+        private DataSpec<? extends T> resolve(DataObject data, Class<T> superType) {
+            if (!data.getType().isEmpty()) {
+                DataSpec<? extends T> named = names.get(data.getType());
+                if (named != null) {
+                    return named;
+                }
+            }
+
+            long fingerprint = 0L;
+            for (Map.Entry<String, DataValue> entry : data) {
+                fingerprint += fingerprint(entry.getKey(), kindOf(entry.getValue()));
+            }
+
+            List<Candidate<T>> exact = fingerprints.get(fingerprint);
+            if (exact != null) {
+                Candidate<T> match = best(exact, data, superType, data.size());
+                if (match != null) {
+                    return match.spec;
+                }
+            }
+
+            Candidate<T> match = best(candidates, data, superType, -1);
+            if (match == null) {
+                throw new RuntimeException("Unsupported data for " + superType + ": " + data);
+            }
+            return match.spec;
+        }
+
+        // picks the matching candidate with the most keys, failing if two candidates match equally well
+        private Candidate<T> best(List<Candidate<T>> candidates, DataObject data, Class<T> superType, int size) {
+            Candidate<T> best = null;
+            Candidate<T> tied = null;
+            for (Candidate<T> candidate : candidates) {
+                if (size != -1 && candidate.keys.length != size) {
+                    continue;
+                }
+                if (!candidate.matches(data)) {
+                    continue;
+                }
+                if (best == null || candidate.keys.length > best.keys.length) {
+                    best = candidate;
+                    tied = null;
+                } else if (candidate.keys.length == best.keys.length) {
+                    tied = candidate;
+                }
+            }
+            if (tied != null) {
+                throw new RuntimeException(String.format(
+                        "Ambiguous data for %s, matches both '%s' and '%s': %s",
+                        superType, best.spec.getName(), tied.spec.getName(), data
+                ));
+            }
+            return best;
+        }
+    }
+
     protected static boolean matches(DataObject object, DataSpec<?> spec) {
         for (Map.Entry<String, DefaultData> entry : spec.getDefaults().entrySet()) {
             if (!object.has(entry.getKey())) {
@@ -0,0 +1,149 @@
+package com.terraforged.cereal.spec;
+
+import com.terraforged.cereal.value.DataValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The serialization strategy of a class, resolved once per class and SpecRegistry and cached by the registry.
+ * Registering new specs through DataSpecs replaces the global registry, so strategies resolved against the old
+ * one are simply dropped with it.
+ */
+public final class TypeStrategy {
+
+    private final Kind inferredKind;
+    private final Kind valueKind;
+    private final DataSpec<?> spec;
+    private final SubSpec<?> subSpec;
+    private final Object[] enumConstants;
+
+    TypeStrategy(Class<?> type, SpecRegistry registry) {
+        this.spec = registry.findSpec(type.getSimpleName());
+        this.subSpec = registry.getSubSpecFor(type);
+        this.enumConstants = type.isEnum() ? type.getEnumConstants() : null;
+        this.valueKind = valueKind(type, spec);
+        this.inferredKind = inferredKind(type, subSpec, valueKind);
+    }
+
+    /**
+     * How Cereal.serialize handles instances of the type.
+     */
+    public Kind getInferredKind() {
+        return inferredKind;
+    }
+
+    /**
+     * How DataValue.of handles instances of the type.
+     */
+    public Kind getValueKind() {
+        return valueKind;
+    }
+
+    /**
+     * The spec registered under the type's simple name, or null.
+     */
+    public DataSpec<?> getSpec() {
+        return spec;
+    }
+
+    /**
+     * The SubSpec the type is registered as a child of, or null.
+     */
+    public SubSpec<?> getSubSpec() {
+        return subSpec;
+    }
+
+    /**
+     * The shared (not to be modified) enum constants of the type, or null if it's not an enum.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> E[] getEnumConstants() {
+        return (E[]) enumConstants;
+    }
+
+    public static TypeStrategy of(Class<?> type) {
+        return DataSpecs.getRegistry().getStrategy(type);
+    }
+
+    public static TypeStrategy of(Class<?> type, Context context) {
+        return context.getRegistry().getStrategy(type);
+    }
+
+    private static Kind valueKind(Class<?> type, DataSpec<?> spec) {
+        if (DataValue.class.isAssignableFrom(type)) {
+            return Kind.VALUE;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return Kind.NUMBER;
+        }
+        if (type == String.class || type == Boolean.class || Enum.class.isAssignableFrom(type)) {
+            return Kind.PRIMITIVE;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            return Kind.LIST;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return Kind.MAP;
+        }
+        if (spec != null) {
+            return Kind.SPEC;
+        }
+        return Kind.NULL;
+    }
+
+    private static Kind inferredKind(Class<?> type, SubSpec<?> subSpec, Kind valueKind) {
+        // DataLists and DataObjects are Iterable but are already serialized
+        if (valueKind == Kind.VALUE) {
+            return Kind.VALUE;
+        }
+        if (type.isArray()) {
+            return Kind.ARRAY;
+        }
+        if (Iterable.class.isAssignableFrom(type)) {
+            return Kind.ITERABLE;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return Kind.MAP;
+        }
+        if (SpecName.class.isAssignableFrom(type)) {
+            return Kind.SPEC_NAME;
+        }
+        if (subSpec != null) {
+            return Kind.SUB_SPEC;
+        }
+        return valueKind;
+    }
+
+    public enum Kind {
+        /**
+         * Already a DataValue.
+         */
+        VALUE,
+        /**
+         * A boxed number.
+         */
+        NUMBER,
+        /**
+         * A String, Boolean or Enum, held as-is.
+         */
+        PRIMITIVE,
+        ARRAY,
+        ITERABLE,
+        LIST,
+        MAP,
+        /**
+         * Implements SpecName so the spec must be looked up per instance.
+         */
+        SPEC_NAME,
+        SUB_SPEC,
+        /**
+         * Has a spec registered under its simple name.
+         */
+        SPEC,
+        /**
+         * Not serializable - produces DataValue.NULL.
+         */
+        NULL,
+    }
+}
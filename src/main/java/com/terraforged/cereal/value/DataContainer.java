@@ -0,0 +1,90 @@
+package com.terraforged.cereal.value;
+
+/**
+ * Holds the cached hashes of DataObjects and DataLists. A container only caches its hash while every container
+ * it holds is held by it alone and has a cached hash too, so a change anywhere below it reaches it through the
+ * parent links. Containers held in more than one place (eg interned nodes), or whose backing collection has
+ * been handed out, recompute their hash on each call, as do the containers holding them.
+ */
+abstract class DataContainer extends DataValue {
+
+    // set on cached hashes so that 0 can mean 'not cached'
+    private static final long CACHED = 1L << 32;
+
+    volatile long hash = 0L;
+    volatile long orderedHash = 0L;
+
+    // the container holding this one, or null if it isn't held or is shared
+    private DataContainer parent = null;
+    private boolean shared = false;
+    private boolean exposed = false;
+
+    DataContainer(Object value) {
+        super(value);
+    }
+
+    // called when a value is added to this container
+    final void link(DataValue value) {
+        if (!(value instanceof DataContainer) || isConstant(value)) {
+            return;
+        }
+        DataContainer child = (DataContainer) value;
+        if (child.shared) {
+            return;
+        }
+        if (child.parent == null) {
+            child.parent = this;
+            return;
+        }
+        // held in a second place (possibly this container again), so changes to it can't be passed up
+        child.parent.modified();
+        child.parent = null;
+        child.shared = true;
+    }
+
+    // called when a value is removed from this container
+    final void unlink(DataValue value) {
+        if (value instanceof DataContainer && ((DataContainer) value).parent == this) {
+            ((DataContainer) value).parent = null;
+        }
+    }
+
+    // whether a change to the value (whose hash has just been computed) would clear this container's hash
+    final boolean tracks(DataValue value, boolean ordered) {
+        if (!(value instanceof DataContainer) || isConstant(value)) {
+            return true;
+        }
+        DataContainer child = (DataContainer) value;
+        return child.parent == this && (ordered ? child.orderedHash : child.hash) != 0L;
+    }
+
+    final long cache(int hash, boolean tracked) {
+        return tracked && !exposed ? CACHED | (hash & 0xFFFFFFFFL) : 0L;
+    }
+
+    // called when the backing collection is handed out, after which changes to it can't be tracked
+    final void expose() {
+        exposed = true;
+        modified();
+    }
+
+    final void modified() {
+        // trees that are never hashed (most of them) stop at the first container. An uncached container can't
+        // have a cached ancestor, so the walk stops there too
+        DataContainer container = this;
+        while (container != null && (container.hash != 0L || container.orderedHash != 0L)) {
+            container.hash = 0L;
+            container.orderedHash = 0L;
+            container = container.parent;
+        }
+    }
+
+    // false only if both hashes are cached and differ
+    static boolean mayEqual(long a, long b) {
+        return a == 0L || b == 0L || (int) a == (int) b;
+    }
+
+    private static boolean isConstant(DataValue value) {
+        return value == DataObject.NULL_OBJ || value == DataList.NULL_LIST;
+    }
+}
@@ -0,0 +1,519 @@
+package com.terraforged.cereal.value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A delta between two DataValue trees made up of the following operations, each addressed by a path of
+ * object keys (Strings) and list indices (Integers) from the root:
+ * <ul>
+ *     <li>SET - adds or replaces the value at the path</li>
+ *     <li>REMOVE - removes the key at the path from its object</li>
+ *     <li>SPLICE - removes 'count' elements from the list at the path, starting at 'index', and inserts the
+ *     op's values in their place</li>
+ *     <li>TYPE - changes the type name of the object at the path</li>
+ * </ul>
+ * Operations are applied in order. Object key order is not considered part of the difference.
+ *
+ * A diff is stored in the Cereal format as a list of typed objects, see {@link #toData()} and
+ * {@link #of(DataList)}.
+ */
+public class DataDiff implements Iterable<DataDiff.Op> {
+
+    // above this many cells the lcs of two lists is not computed and the differing middle is replaced instead
+    private static final int MAX_LCS_CELLS = 1 << 20;
+
+    private final List<Op> ops;
+
+    private DataDiff(List<Op> ops) {
+        this.ops = Collections.unmodifiableList(ops);
+    }
+
+    public boolean isEmpty() {
+        return ops.isEmpty();
+    }
+
+    public int size() {
+        return ops.size();
+    }
+
+    public List<Op> getOps() {
+        return ops;
+    }
+
+    @Override
+    public Iterator<Op> iterator() {
+        return ops.iterator();
+    }
+
+    /**
+     * Applies the diff to the base tree, modifying it in place. Returns the resulting root, which is a new
+     * value if the diff replaces the root or changes its type.
+     */
+    public DataValue apply(DataValue base) {
+        DataValue root = base;
+        for (Op op : ops) {
+            root = op.apply(root);
+        }
+        return root;
+    }
+
+    public DataList toData() {
+        DataList list = new DataList(ops.size());
+        for (Op op : ops) {
+            list.add(op.toData());
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return ops.toString();
+    }
+
+    /**
+     * Computes the operations that turn 'from' into 'to'.
+     */
+    public static DataDiff of(DataValue from, DataValue to) {
+        List<Op> ops = new ArrayList<>();
+        diff(new ArrayList<>(), from, to, ops);
+        return new DataDiff(ops);
+    }
+
+    /**
+     * Reads a diff previously written with {@link #toData()}.
+     */
+    public static DataDiff of(DataList data) {
+        List<Op> ops = new ArrayList<>(data.size());
+        for (DataValue value : data) {
+            ops.add(Op.of(value.asObj()));
+        }
+        return new DataDiff(ops);
+    }
+
+    /**
+     * Deep equality that, unlike equals(), also compares the type names of objects.
+     */
+    public static boolean same(DataValue a, DataValue b) {
+        if (a == b) {
+            return true;
+        }
+
+        // containers cache their hashes so repeated comparisons of unequal trees stop here
+        if (a.hashCode() != b.hashCode()) {
+            return false;
+        }
+
+        if (a.isObj() && b.isObj()) {
+            DataObject objA = a.asObj();
+            DataObject objB = b.asObj();
+            if (objA.size() != objB.size() || !objA.getType().equals(objB.getType())) {
+                return false;
+            }
+            for (Map.Entry<String, DataValue> entry : objA) {
+                DataValue other = objB.get(entry.getKey());
+                if (other.isNull() || !same(entry.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        if (a.isList() && b.isList()) {
+            DataList listA = a.asList();
+            DataList listB = b.asList();
+            if (listA.size() != listB.size()) {
+                return false;
+            }
+            for (int i = 0; i < listA.size(); i++) {
+                if (!same(listA.get(i), listB.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return a.equals(b);
+    }
+
+    private static void diff(List<Object> path, DataValue from, DataValue to, List<Op> ops) {
+        if (from.isObj() && to.isObj()) {
+            diffObject(path, from.asObj(), to.asObj(), ops);
+        } else if (from.isList() && to.isList()) {
+            diffList(path, from.asList(), to.asList(), ops);
+        } else if (!same(from, to)) {
+            ops.add(new Op(Kind.SET, path.toArray(), copy(to)));
+        }
+    }
+
+    private static void diffObject(List<Object> path, DataObject from, DataObject to, List<Op> ops) {
+        if (!from.getType().equals(to.getType())) {
+            ops.add(new Op(Kind.TYPE, path.toArray(), to.getType()));
+        }
+
+        for (Map.Entry<String, DataValue> entry : from) {
+            if (!to.has(entry.getKey())) {
+                ops.add(new Op(Kind.REMOVE, append(path, entry.getKey()), DataValue.NULL));
+            }
+        }
+
+        for (Map.Entry<String, DataValue> entry : to) {
+            DataValue previous = from.get(entry.getKey());
+            if (previous.isNull()) {
+                ops.add(new Op(Kind.SET, append(path, entry.getKey()), copy(entry.getValue())));
+            } else {
+                path.add(entry.getKey());
+                diff(path, previous, entry.getValue(), ops);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    // trims the common prefix/suffix, aligns the middles by their longest common subsequence and emits an op per
+    // differing run. runs are emitted from the end of the list backwards so that each op's indices are unaffected
+    // by the ops before it
+    private static void diffList(List<Object> path, DataList from, DataList to, List<Op> ops) {
+        int start = 0;
+        int endA = from.size();
+        int endB = to.size();
+        while (start < endA && start < endB && same(from.get(start), to.get(start))) {
+            start++;
+        }
+        while (endA > start && endB > start && same(from.get(endA - 1), to.get(endB - 1))) {
+            endA--;
+            endB--;
+        }
+
+        int lengthA = endA - start;
+        int lengthB = endB - start;
+        if (lengthA == 0 && lengthB == 0) {
+            return;
+        }
+
+        if (lengthA == 0 || lengthB == 0 || (long) lengthA * lengthB > MAX_LCS_CELLS) {
+            diffRun(path, from, to, start, lengthA, start, lengthB, ops);
+            return;
+        }
+
+        int[] hashA = hashes(from, start, lengthA);
+        int[] hashB = hashes(to, start, lengthB);
+
+        // lcs[i][j] = length of the lcs of from[start + i..endA) and to[start + j..endB)
+        int[][] lcs = new int[lengthA + 1][lengthB + 1];
+        for (int i = lengthA - 1; i >= 0; i--) {
+            for (int j = lengthB - 1; j >= 0; j--) {
+                if (hashA[i] == hashB[j] && same(from.get(start + i), to.get(start + j))) {
+                    lcs[i][j] = lcs[i + 1][j + 1] + 1;
+                } else {
+                    lcs[i][j] = Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+                }
+            }
+        }
+
+        // collect the runs of unmatched elements as {fromIndex, fromLength, toIndex, toLength}
+        List<int[]> runs = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < lengthA || j < lengthB) {
+            if (i < lengthA && j < lengthB && hashA[i] == hashB[j] && lcs[i][j] == lcs[i + 1][j + 1] + 1 && same(from.get(start + i), to.get(start + j))) {
+                i++;
+                j++;
+                continue;
+            }
+
+            int runA = i;
+            int runB = j;
+            while (i < lengthA || j < lengthB) {
+                if (i < lengthA && j < lengthB && hashA[i] == hashB[j] && lcs[i][j] == lcs[i + 1][j + 1] + 1 && same(from.get(start + i), to.get(start + j))) {
+                    break;
+                }
+                if (j >= lengthB || (i < lengthA && lcs[i + 1][j] >= lcs[i][j + 1])) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            runs.add(new int[]{start + runA, i - runA, start + runB, j - runB});
+        }
+
+        for (int r = runs.size() - 1; r >= 0; r--) {
+            int[] run = runs.get(r);
+            diffRun(path, from, to, run[0], run[1], run[2], run[3], ops);
+        }
+    }
+
+    // elements paired by position are diffed in place, the remainder is removed/inserted with a single splice
+    private static void diffRun(List<Object> path, DataList from, DataList to, int indexA, int lengthA, int indexB, int lengthB, List<Op> ops) {
+        int paired = Math.min(lengthA, lengthB);
+        if (lengthA != lengthB) {
+            DataList insert = new DataList(lengthB - paired);
+            for (int i = paired; i < lengthB; i++) {
+                insert.add(copy(to.get(indexB + i)));
+            }
+            ops.add(new Op(Kind.SPLICE, path.toArray(), insert, indexA + paired, lengthA - paired));
+        }
+
+        for (int i = paired - 1; i >= 0; i--) {
+            path.add(indexA + i);
+            diff(path, from.get(indexA + i), to.get(indexB + i), ops);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    private static int[] hashes(DataList list, int start, int length) {
+        int[] hashes = new int[length];
+        for (int i = 0; i < length; i++) {
+            hashes[i] = list.get(start + i).hashCode();
+        }
+        return hashes;
+    }
+
+    private static Object[] append(List<Object> path, Object segment) {
+        Object[] array = path.toArray(new Object[path.size() + 1]);
+        array[path.size()] = segment;
+        return array;
+    }
+
+    private static DataValue copy(DataValue value) {
+        if (value.isObj()) {
+            DataObject source = value.asObj();
+            DataObject copy = new DataObject(source.getType(), source.size());
+            for (Map.Entry<String, DataValue> entry : source) {
+                copy.add(entry.getKey(), copy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value.isList()) {
+            DataList source = value.asList();
+            DataList copy = source.isPacked() ? DataList.packed() : new DataList(source.size());
+            for (DataValue element : source) {
+                copy.add(copy(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    public enum Kind {
+        SET("set"),
+        REMOVE("remove"),
+        SPLICE("splice"),
+        TYPE("type"),
+        ;
+
+        private final String name;
+
+        Kind(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Kind of(String name) {
+            for (Kind kind : values()) {
+                if (kind.name.equals(name)) {
+                    return kind;
+                }
+            }
+            throw new RuntimeException("Unknown diff op: " + name);
+        }
+    }
+
+    public static class Op {
+
+        private final Kind kind;
+        private final Object[] path;
+        private final DataValue value;
+        private final String type;
+        private final int index;
+        private final int count;
+
+        private Op(Kind kind, Object[] path, DataValue value) {
+            this(kind, path, value, "", 0, 0);
+        }
+
+        private Op(Kind kind, Object[] path, String type) {
+            this(kind, path, DataValue.NULL, type, 0, 0);
+        }
+
+        private Op(Kind kind, Object[] path, DataList values, int index, int count) {
+            this(kind, path, values, "", index, count);
+        }
+
+        private Op(Kind kind, Object[] path, DataValue value, String type, int index, int count) {
+            this.kind = kind;
+            this.path = path;
+            this.value = value;
+            this.type = type;
+            this.index = index;
+            this.count = count;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * The keys (Strings) and list indices (Integers) leading from the root to the affected value.
+         */
+        public Object[] getPath() {
+            return path.clone();
+        }
+
+        /**
+         * The value set by a SET op, or the list of values inserted by a SPLICE op.
+         */
+        public DataValue getValue() {
+            return value;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        private DataValue apply(DataValue root) {
+            switch (kind) {
+                case SET:
+                    return replace(root, copy(value));
+                case REMOVE:
+                    parent(root).asObj().remove((String) path[path.length - 1]);
+                    return root;
+                case SPLICE: {
+                    DataList list = resolve(root, path.length).asList();
+                    if (list == DataList.NULL_LIST || index + count > list.size()) {
+                        throw new RuntimeException("Invalid splice " + this);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        list.remove(index);
+                    }
+                    DataList values = value.asList();
+                    for (int i = 0; i < values.size(); i++) {
+                        list.add(index + i, copy(values.get(i)));
+                    }
+                    return root;
+                }
+                default: {
+                    DataObject source = resolve(root, path.length).asObj();
+                    DataObject object = new DataObject(type, source.size());
+                    for (Map.Entry<String, DataValue> entry : source) {
+                        object.add(entry.getKey(), entry.getValue());
+                    }
+                    return replace(root, object);
+                }
+            }
+        }
+
+        private DataValue replace(DataValue root, DataValue replacement) {
+            if (path.length == 0) {
+                return replacement;
+            }
+            DataValue parent = parent(root);
+            Object segment = path[path.length - 1];
+            if (segment instanceof String) {
+                parent.asObj().add((String) segment, replacement);
+            } else {
+                parent.asList().set((Integer) segment, replacement);
+            }
+            return root;
+        }
+
+        private DataValue parent(DataValue root) {
+            DataValue parent = resolve(root, path.length - 1);
+            if (!parent.isObj() && !parent.isList()) {
+                throw new RuntimeException("Invalid path " + this);
+            }
+            return parent;
+        }
+
+        private DataValue resolve(DataValue root, int length) {
+            DataValue value = root;
+            for (int i = 0; i < length; i++) {
+                Object segment = path[i];
+                if (segment instanceof String) {
+                    value = value.asObj().get((String) segment);
+                } else {
+                    value = value.asList().get((Integer) segment);
+                }
+            }
+            return value;
+        }
+
+        private DataObject toData() {
+            DataList pathData = new DataList(path.length);
+            for (Object segment : path) {
+                pathData.add(segment instanceof Integer ? DataValue.of((long) (Integer) segment) : DataValue.of(segment));
+            }
+
+            DataObject data = new DataObject(kind.getName());
+            data.add("path", pathData);
+            switch (kind) {
+                case SET:
+                    data.add("value", value);
+                    break;
+                case SPLICE:
+                    data.add("index", index);
+                    data.add("count", count);
+                    data.add("values", value);
+                    break;
+                case TYPE:
+                    data.add("name", type);
+                    break;
+                default:
+                    break;
+            }
+            return data;
+        }
+
+        private static Op of(DataObject data) {
+            Kind kind = Kind.of(data.getType());
+            DataList pathData = data.getList("path");
+            Object[] path = new Object[pathData.size()];
+            for (int i = 0; i < path.length; i++) {
+                DataValue segment = pathData.get(i);
+                path[i] = segment.isNum() ? (Object) segment.asInt() : segment.asString();
+            }
+
+            switch (kind) {
+                case SET:
+                    return new Op(kind, path, data.get("value"));
+                case REMOVE:
+                    return new Op(kind, path, DataValue.NULL);
+                case SPLICE:
+                    return new Op(kind, path, data.getList("values"), data.get("index").asInt(), data.get("count").asInt());
+                default:
+                    return new Op(kind, path, data.get("name").asString());
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(kind.getName()).append(' ');
+            for (int i = 0; i < path.length; i++) {
+                sb.append(i > 0 ? "." : "").append(path[i]);
+            }
+            switch (kind) {
+                case SET:
+                    return sb.append(" = ").append(value).toString();
+                case SPLICE:
+                    return sb.append(" [").append(index).append(", -").append(count).append(", +").append(value).append(']').toString();
+                case TYPE:
+                    return sb.append(" -> ").append(type).toString();
+                default:
+                    return sb.toString();
+            }
+        }
+    }
+}
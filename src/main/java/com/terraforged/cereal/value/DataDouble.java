@@ -0,0 +1,87 @@
+package com.terraforged.cereal.value;
+
+import com.terraforged.cereal.serial.DataWriter;
+
+import java.io.IOException;
+
+public class DataDouble extends DataValue {
+
+    private final double value;
+
+    public DataDouble(double value) {
+        super(null);
+        this.value = value;
+    }
+
+    @Override
+    public boolean isNum() {
+        return true;
+    }
+
+    @Override
+    public Number asNum() {
+        return value;
+    }
+
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+
+    @Override
+    public int asInt() {
+        return (int) value;
+    }
+
+    @Override
+    public short aShort() {
+        return (short) value;
+    }
+
+    @Override
+    public long asLong() {
+        return (long) value;
+    }
+
+    @Override
+    public float asFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public double asDouble() {
+        return value;
+    }
+
+    @Override
+    public boolean asBool() {
+        return (byte) value == 1;
+    }
+
+    @Override
+    public String asString() {
+        return Double.toString(value);
+    }
+
+    @Override
+    public void appendTo(DataWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    protected boolean valueEquals(Object other) {
+        return other instanceof Double && Double.compare((Double) other, value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Double.compare(value, ((DataDouble) o).value) == 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.terraforged.cereal.value;
+
+import com.terraforged.cereal.serial.DataWriter;
+
+import java.io.IOException;
+
+public class DataFloat extends DataValue {
+
+    private final float value;
+
+    public DataFloat(float value) {
+        super(null);
+        this.value = value;
+    }
+
+    @Override
+    public boolean isNum() {
+        return true;
+    }
+
+    @Override
+    public Number asNum() {
+        return value;
+    }
+
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+
+    @Override
+    public int asInt() {
+        return (int) value;
+    }
+
+    @Override
+    public short aShort() {
+        return (short) value;
+    }
+
+    @Override
+    public long asLong() {
+        return (long) value;
+    }
+
+    @Override
+    public float asFloat() {
+        return value;
+    }
+
+    @Override
+    public double asDouble() {
+        return value;
+    }
+
+    @Override
+    public boolean asBool() {
+        return (byte) value == 1;
+    }
+
+    @Override
+    public String asString() {
+        return Float.toString(value);
+    }
+
+    @Override
+    public void appendTo(DataWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    protected boolean valueEquals(Object other) {
+        return other instanceof Float && Float.compare((Float) other, value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Float.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Float.compare(value, ((DataFloat) o).value) == 0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.terraforged.cereal.value;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collapses structurally equal subtrees into a single shared node (hash-consing). Trees are canonicalized
+ * bottom-up and in place: once a node's children are canonical, two nodes are equal if they have the same type
+ * name, keys (in the same order) and the identical child instances, so each node is compared in one shallow
+ * pass rather than a deep one.
+ *
+ * Interned trees share nodes and must be treated as read-only - modifying a shared node modifies every place
+ * it appears. An interner can be reused across documents to share the nodes between them.
+ */
+public class DataInterner {
+
+    private final Map<Node, DataValue> nodes = new HashMap<>();
+    private final Set<DataValue> canonical = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Returns the canonical instance of the value, replacing the children of the value (and of its children)
+     * with their canonical instances.
+     */
+    @SuppressWarnings("unchecked")
+    public <V extends DataValue> V intern(V value) {
+        if (value.isNull() || canonical.contains(value)) {
+            return value;
+        }
+
+        if (value.isObj()) {
+            for (Map.Entry<String, DataValue> entry : value.asObj()) {
+                DataValue child = entry.getValue();
+                DataValue interned = intern(child);
+                if (interned != child) {
+                    entry.setValue(interned);
+                }
+            }
+        } else if (value.isList() && !value.asList().isPacked()) {
+            DataList list = value.asList();
+            for (int i = 0; i < list.size(); i++) {
+                DataValue child = list.get(i);
+                DataValue interned = intern(child);
+                if (interned != child) {
+                    list.set(i, interned);
+                }
+            }
+        }
+
+        DataValue existing = nodes.putIfAbsent(new Node(value), value);
+        if (existing != null) {
+            return (V) existing;
+        }
+        canonical.add(value);
+        return value;
+    }
+
+    /**
+     * The number of distinct nodes held by the interner.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    public static <V extends DataValue> V canonicalize(V value) {
+        return new DataInterner().intern(value);
+    }
+
+    // a node whose children are already canonical
+    private static class Node {
+
+        private final DataValue value;
+        private final int hash;
+
+        private Node(DataValue value) {
+            this.value = value;
+            this.hash = hash(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            return hash == other.hash && same(value, other.value);
+        }
+
+        private static int hash(DataValue value) {
+            if (value.isObj()) {
+                DataObject object = value.asObj();
+                int hash = object.getType().hashCode();
+                for (Map.Entry<String, DataValue> entry : object) {
+                    hash = hash * 31 + entry.getKey().hashCode();
+                    hash = hash * 31 + System.identityHashCode(entry.getValue());
+                }
+                return hash;
+            }
+            if (value.isList()) {
+                DataList list = value.asList();
+                if (list.isPacked()) {
+                    return list.hashCode();
+                }
+                int hash = 2;
+                for (DataValue element : list) {
+                    hash = hash * 31 + System.identityHashCode(element);
+                }
+                return hash;
+            }
+            return value.getClass().hashCode() * 31 + value.hashCode();
+        }
+
+        private static boolean same(DataValue a, DataValue b) {
+            if (a.getClass() != b.getClass()) {
+                return false;
+            }
+            if (a.isObj()) {
+                DataObject objA = a.asObj();
+                DataObject objB = b.asObj();
+                if (objA.size() != objB.size() || !objA.getType().equals(objB.getType())) {
+                    return false;
+                }
+                Iterator<Map.Entry<String, DataValue>> itB = objB.iterator();
+                for (Map.Entry<String, DataValue> entryA : objA) {
+                    Map.Entry<String, DataValue> entryB = itB.next();
+                    if (entryA.getValue() != entryB.getValue() || !entryA.getKey().equals(entryB.getKey())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (a.isList()) {
+                DataList listA = a.asList();
+                DataList listB = b.asList();
+                if (listA.size() != listB.size() || listA.isPacked() != listB.isPacked()) {
+                    return false;
+                }
+                if (listA.isPacked()) {
+                    return DataDiff.same(listA, listB);
+                }
+                for (int i = 0; i < listA.size(); i++) {
+                    if (listA.get(i) != listB.get(i)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return a.equals(b);
+        }
+    }
+}
@@ -4,11 +4,12 @@ import com.terraforged.cereal.serial.DataWriter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
-public class DataList extends DataValue implements Iterable<DataValue> {
+public class DataList extends DataContainer implements Iterable<DataValue> {
 
     public static final DataList NULL_LIST = new DataList(Collections.emptyList(), false);
 
@@ -43,7 +44,7 @@ public class DataList extends DataValue implements Iterable<DataValue> {
 
     public boolean contains(Object value) {
         for (DataValue v : this) {
-            if (value.equals(v.value)) {
+            if (v.valueEquals(value)) {
                 return true;
             }
         }
@@ -72,9 +73,50 @@ public class DataList extends DataValue implements Iterable<DataValue> {
         return add(DataValue.of(value));
     }
 
+    public DataList add(long value) {
+        if (data instanceof PackedList) {
+            ((PackedList) data).addLong(value);
+            modified();
+            return this;
+        }
+        return add(DataValue.of(value));
+    }
+
+    public DataList add(float value) {
+        if (data instanceof PackedList) {
+            ((PackedList) data).addFloat(value);
+            modified();
+            return this;
+        }
+        return add(DataValue.of(value));
+    }
+
+    public DataList add(double value) {
+        if (data instanceof PackedList) {
+            ((PackedList) data).addDouble(value);
+            modified();
+            return this;
+        }
+        return add(DataValue.of(value));
+    }
+
     public DataList add(DataValue value) {
         if (value.isNonNull() || nullable) {
             data.add(value);
+            link(value);
+            modified();
+        }
+        return this;
+    }
+
+    /**
+     * Inserts the value at the given index, shifting the following elements along.
+     */
+    public DataList add(int index, DataValue value) {
+        if (value.isNonNull() || nullable) {
+            data.add(index, value);
+            link(value);
+            modified();
         }
         return this;
     }
@@ -86,6 +128,9 @@ public class DataList extends DataValue implements Iterable<DataValue> {
     public DataValue set(int index, DataValue value) {
         if (value.isNonNull() || nullable) {
             DataValue removed = data.set(index, value);
+            unlink(removed);
+            link(value);
+            modified();
             if (removed != null) {
                 return removed;
             }
@@ -96,6 +141,8 @@ public class DataList extends DataValue implements Iterable<DataValue> {
     public DataValue remove(int index) {
         if (index < size()) {
             DataValue value = data.remove(index);
+            unlink(value);
+            modified();
             if (value != null) {
                 return value;
             }
@@ -103,10 +150,70 @@ public class DataList extends DataValue implements Iterable<DataValue> {
         return DataValue.NULL;
     }
 
+    /**
+     * Changes made through the backing list aren't tracked, so the list stops caching its hash once it has been
+     * handed out.
+     */
     public List<DataValue> getBacking() {
+        expose();
         return data;
     }
 
+    /**
+     * Whether the elements are held in a primitive array rather than as individual DataValues.
+     */
+    public boolean isPacked() {
+        return data instanceof PackedList && ((PackedList) data).isPacked();
+    }
+
+    public int[] toIntArray() {
+        int[] array = new int[data.size()];
+        if (isPacked()) {
+            long[] longs = ((PackedList) data).toLongArray();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (int) longs[i];
+            }
+            return array;
+        }
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(i).asInt();
+        }
+        return array;
+    }
+
+    public long[] toLongArray() {
+        if (isPacked()) {
+            return ((PackedList) data).toLongArray();
+        }
+        long[] array = new long[data.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(i).asLong();
+        }
+        return array;
+    }
+
+    public float[] toFloatArray() {
+        if (isPacked()) {
+            return ((PackedList) data).toFloatArray();
+        }
+        float[] array = new float[data.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(i).asFloat();
+        }
+        return array;
+    }
+
+    public double[] toDoubleArray() {
+        if (isPacked()) {
+            return ((PackedList) data).toDoubleArray();
+        }
+        double[] array = new double[data.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(i).asDouble();
+        }
+        return array;
+    }
+
     @Override
     public void appendTo(DataWriter writer) throws IOException {
         writer.beginList();
@@ -116,8 +223,128 @@ public class DataList extends DataValue implements Iterable<DataValue> {
         writer.endList();
     }
 
+    /**
+     * Removals made through the iterator clear the cached hash.
+     */
     @Override
     public Iterator<DataValue> iterator() {
-        return data.iterator();
+        Iterator<DataValue> iterator = data.iterator();
+        return new Iterator<DataValue>() {
+
+            private DataValue value;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public DataValue next() {
+                return value = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                unlink(value);
+                modified();
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = this.hash;
+        if (hash != 0L) {
+            return (int) hash;
+        }
+        // the same as List.hashCode
+        int h = 1;
+        boolean tracked = true;
+        for (DataValue value : data) {
+            h = h * 31 + value.hashCode();
+            tracked &= tracks(value, false);
+        }
+        this.hash = cache(h, tracked);
+        return h;
+    }
+
+    @Override
+    public int orderedHashCode() {
+        long hash = this.orderedHash;
+        if (hash != 0L) {
+            return (int) hash;
+        }
+        if (isPacked()) {
+            int h = hashCode();
+            this.orderedHash = this.hash;
+            return h;
+        }
+        int h = 1;
+        boolean tracked = true;
+        for (DataValue value : data) {
+            h = h * 31 + value.orderedHashCode();
+            tracked &= tracks(value, true);
+        }
+        this.orderedHash = cache(h, tracked);
+        return h;
+    }
+
+    /**
+     * Comparisons between lists whose hashes are already cached and differ return immediately.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DataList other = (DataList) o;
+        if (data.size() != other.data.size() || !mayEqual(hash, other.hash)) {
+            return false;
+        }
+        return data.equals(other.data);
+    }
+
+    /**
+     * Creates an empty list that packs its elements into a primitive array while they are all of the same
+     * numeric type.
+     */
+    public static DataList packed() {
+        return new DataList(new PackedList(), false);
+    }
+
+    public static DataList of(long[] values) {
+        return new DataList(new PackedList(Arrays.copyOf(values, values.length)), false);
+    }
+
+    public static DataList of(int[] values) {
+        long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            longs[i] = values[i];
+        }
+        return new DataList(new PackedList(longs), false);
+    }
+
+    public static DataList of(short[] values) {
+        long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            longs[i] = values[i];
+        }
+        return new DataList(new PackedList(longs), false);
+    }
+
+    public static DataList of(byte[] values) {
+        long[] longs = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            longs[i] = values[i];
+        }
+        return new DataList(new PackedList(longs), false);
+    }
+
+    public static DataList of(float[] values) {
+        return new DataList(new PackedList(Arrays.copyOf(values, values.length)), false);
+    }
+
+    public static DataList of(double[] values) {
+        return new DataList(new PackedList(Arrays.copyOf(values, values.length)), false);
     }
 }
@@ -0,0 +1,90 @@
+package com.terraforged.cereal.value;
+
+import com.terraforged.cereal.serial.DataWriter;
+
+import java.io.IOException;
+
+public class DataLong extends DataValue {
+
+    private final long value;
+
+    public DataLong(long value) {
+        super(null);
+        this.value = value;
+    }
+
+    @Override
+    public boolean isNum() {
+        return true;
+    }
+
+    @Override
+    public Number asNum() {
+        return value;
+    }
+
+    @Override
+    public byte asByte() {
+        return (byte) value;
+    }
+
+    @Override
+    public int asInt() {
+        return (int) value;
+    }
+
+    @Override
+    public short aShort() {
+        return (short) value;
+    }
+
+    @Override
+    public long asLong() {
+        return value;
+    }
+
+    @Override
+    public float asFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public double asDouble() {
+        return value;
+    }
+
+    @Override
+    public boolean asBool() {
+        return (byte) value == 1;
+    }
+
+    @Override
+    public String asString() {
+        return Long.toString(value);
+    }
+
+    @Override
+    public void appendTo(DataWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    protected boolean valueEquals(Object other) {
+        if (other instanceof Long || other instanceof Integer || other instanceof Short || other instanceof Byte) {
+            return ((Number) other).longValue() == value;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Long.compare(value, ((DataLong) o).value) == 0;
+    }
+}
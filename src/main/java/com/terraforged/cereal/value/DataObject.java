@@ -9,7 +9,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
-public class DataObject extends DataValue implements Iterable<Map.Entry<String, DataValue>> {
+public class DataObject extends DataContainer implements Iterable<Map.Entry<String, DataValue>> {
 
     public static final DataObject NULL_OBJ = new DataObject("null", Collections.emptyMap(), false);
 
@@ -32,6 +32,10 @@ public class DataObject extends DataValue implements Iterable<Map.Entry<String,
         this(type, new LinkedHashMap<>(), false);
     }
 
+    public DataObject(String type, int size) {
+        this(type, new LinkedHashMap<>(Math.max(16, (int) (size / 0.75F) + 1)), false);
+    }
+
     public String getType() {
         return type;
     }
@@ -46,7 +50,7 @@ public class DataObject extends DataValue implements Iterable<Map.Entry<String,
 
     public boolean contains(Object value) {
         for (DataValue v : data.values()) {
-            if (value.equals(v.value)) {
+            if (v.valueEquals(value)) {
                 return true;
             }
         }
@@ -71,7 +75,9 @@ public class DataObject extends DataValue implements Iterable<Map.Entry<String,
 
     public DataObject add(String key, DataValue value) {
         if (value.isNonNull() || nullable) {
-            data.put(key, value);
+            unlink(data.put(key, value));
+            link(value);
+            modified();
         }
         return this;
     }
@@ -81,6 +87,8 @@ public class DataObject extends DataValue implements Iterable<Map.Entry<String,
         if (value == null) {
             return DataValue.NULL;
         }
+        unlink(value);
+        modified();
         return value;
     }
 
@@ -88,10 +96,66 @@ public class DataObject extends DataValue implements Iterable<Map.Entry<String,
         data.forEach(consumer);
     }
 
+    /**
+     * Changes made through the backing map aren't tracked, so the object stops caching its hash once it has
+     * been handed out.
+     */
     public Map<String, DataValue> getBacking() {
+        expose();
         return data;
     }
 
+    @Override
+    public int hashCode() {
+        long hash = this.hash;
+        if (hash != 0L) {
+            return (int) hash;
+        }
+        // the same as Map.hashCode
+        int h = 0;
+        boolean tracked = true;
+        for (Map.Entry<String, DataValue> entry : data.entrySet()) {
+            DataValue value = entry.getValue();
+            h += entry.getKey().hashCode() ^ value.hashCode();
+            tracked &= tracks(value, false);
+        }
+        this.hash = cache(h, tracked);
+        return h;
+    }
+
+    @Override
+    public int orderedHashCode() {
+        long hash = this.orderedHash;
+        if (hash != 0L) {
+            return (int) hash;
+        }
+        int h = 1;
+        boolean tracked = true;
+        for (Map.Entry<String, DataValue> entry : data.entrySet()) {
+            DataValue value = entry.getValue();
+            h = h * 31 + entry.getKey().hashCode();
+            h = h * 31 + value.orderedHashCode();
+            tracked &= tracks(value, true);
+        }
+        this.orderedHash = cache(h, tracked);
+        return h;
+    }
+
+    /**
+     * Objects are equal if they hold equal values for the same keys, regardless of key order or type name.
+     * Comparisons between objects whose hashes are already cached and differ return immediately.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DataObject other = (DataObject) o;
+        if (data.size() != other.data.size() || !mayEqual(hash, other.hash)) {
+            return false;
+        }
+        return data.equals(other.data);
+    }
+
     @Override
     public void appendTo(DataWriter writer) throws IOException {
         writer.type(type);
@@ -103,8 +167,75 @@ public class DataObject extends DataValue implements Iterable<Map.Entry<String,
         writer.endObj();
     }
 
+    /**
+     * Removals and Entry.setValue calls made through the iterator are tracked. To avoid an allocation per
+     * element the iterator is its own Entry, pointing at the current mapping until the next call to next(), so
+     * copy the key and value rather than holding on to the entry.
+     */
     @Override
     public Iterator<Map.Entry<String, DataValue>> iterator() {
-        return data.entrySet().iterator();
+        return new Entries(data.entrySet().iterator());
+    }
+
+    private class Entries implements Iterator<Map.Entry<String, DataValue>>, Map.Entry<String, DataValue> {
+
+        private final Iterator<Map.Entry<String, DataValue>> iterator;
+        private Map.Entry<String, DataValue> entry;
+
+        private Entries(Iterator<Map.Entry<String, DataValue>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, DataValue> next() {
+            entry = iterator.next();
+            return this;
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+            unlink(entry.getValue());
+            modified();
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public DataValue getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public DataValue setValue(DataValue value) {
+            DataValue previous = entry.setValue(value);
+            unlink(previous);
+            link(value);
+            modified();
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
     }
 }
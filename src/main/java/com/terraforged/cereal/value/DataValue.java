@@ -59,11 +59,11 @@ public class DataValue {
     }
 
     public DataValue inc(int amount) {
-        return new DataValue(asInt() + amount);
+        return of(asInt() + amount);
     }
 
     public DataValue inc(double amount) {
-        return new DataValue(asDouble() + amount);
+        return of(asDouble() + amount);
     }
 
     public byte asByte() {
@@ -113,7 +113,7 @@ public class DataValue {
         }
         if (isNum()) {
             int ordinal = asInt();
-            E[] values = type.getEnumConstants();
+            E[] values = TypeStrategy.of(type).getEnumConstants();
             if (ordinal < values.length) {
                 return values[ordinal];
             }
@@ -145,11 +145,23 @@ public class DataValue {
         writer.value(value);
     }
 
+    protected boolean valueEquals(Object other) {
+        return other.equals(value);
+    }
+
     @Override
     public int hashCode() {
         return value == null ? -1 : value.hashCode();
     }
 
+    /**
+     * A hash that also depends on the order of each object's keys, unlike hashCode (and equals) which treat
+     * objects as unordered maps.
+     */
+    public int orderedHashCode() {
+        return hashCode();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -179,52 +191,71 @@ public class DataValue {
         return of(value, Context.NONE);
     }
 
+    public static DataValue of(long value) {
+        return new DataLong(value);
+    }
+
+    public static DataValue of(float value) {
+        return new DataFloat(value);
+    }
+
+    public static DataValue of(double value) {
+        return new DataDouble(value);
+    }
+
     public static DataValue of(Object value, Context context) {
-        if (value instanceof DataValue) {
-            return (DataValue) value;
-        }
-        if (value instanceof Number) {
-            return new DataValue(value);
-        }
-        if (value instanceof String) {
-            return new DataValue(value);
-        }
-        if (value instanceof Boolean) {
-            return new DataValue(value);
-        }
-        if (value instanceof Enum<?>) {
-            return new DataValue(value);
+        if (value == null) {
+            return NULL;
         }
-        if (value instanceof List) {
-            List<?> list = (List<?>) value;
-            DataList data = new DataList(list.size());
-            for (Object o : list) {
-                data.add(DataValue.of(o, context));
+        TypeStrategy strategy = TypeStrategy.of(value.getClass(), context);
+        switch (strategy.getValueKind()) {
+            case VALUE:
+                return (DataValue) value;
+            case NUMBER:
+                return ofNumber((Number) value);
+            case PRIMITIVE:
+                return new DataValue(value);
+            case LIST: {
+                List<?> list = (List<?>) value;
+                DataList data = new DataList(list.size());
+                for (Object o : list) {
+                    data.add(DataValue.of(o, context));
+                }
+                return data;
             }
-            return data;
-        }
-        if (value instanceof Map) {
-            Map<?, ?> map = (Map<?, ?>) value;
-            DataObject data = new DataObject();
-            for (Map.Entry<?, ?> e : map.entrySet()) {
-                data.add(e.getKey().toString(), DataValue.of(e.getValue(), context));
+            case MAP: {
+                Map<?, ?> map = (Map<?, ?>) value;
+                DataObject data = new DataObject();
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    data.add(e.getKey().toString(), DataValue.of(e.getValue(), context));
+                }
+                return data;
             }
-            return data;
+            case SPEC:
+                return strategy.getSpec().serialize(value, context);
+            default:
+                return NULL;
         }
-        if (value != null) {
-            String name = value.getClass().getSimpleName();
-            if (DataSpecs.hasSpec(name)) {
-                return DataSpecs.getSpec(name).serialize(value, context);
-            }
+    }
+
+    private static DataValue ofNumber(Number value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return new DataLong(value.longValue());
+        }
+        if (value instanceof Double) {
+            return new DataDouble(value.doubleValue());
+        }
+        if (value instanceof Float) {
+            return new DataFloat(value.floatValue());
         }
-        return NULL;
+        return new DataValue(value);
     }
 
     public static Supplier<DataValue> lazy(Object value) {
         return new Supplier<DataValue>() {
 
             private final Object val = value;
-            private DataValue data = null;
+            private volatile DataValue data = null;
 
             @Override
             public DataValue get() {
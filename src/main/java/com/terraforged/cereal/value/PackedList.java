@@ -0,0 +1,286 @@
+package com.terraforged.cereal.value;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Backing list for DataLists of a single numeric type. Elements are held in a primitive array and only wrapped
+ * in a DataValue when accessed. The first element decides the array type - adding a value of any other type
+ * converts the list to regular DataValue storage.
+ */
+class PackedList extends AbstractList<DataValue> implements RandomAccess {
+
+    private static final int NONE = 0;
+    private static final int LONG = 1;
+    private static final int DOUBLE = 2;
+    private static final int FLOAT = 3;
+
+    private int kind = NONE;
+    private int size = 0;
+    private long[] longs;
+    private double[] doubles;
+    private float[] floats;
+    private List<DataValue> values;
+
+    PackedList() {
+
+    }
+
+    PackedList(long[] longs) {
+        this.kind = LONG;
+        this.longs = longs;
+        this.size = longs.length;
+    }
+
+    PackedList(double[] doubles) {
+        this.kind = DOUBLE;
+        this.doubles = doubles;
+        this.size = doubles.length;
+    }
+
+    PackedList(float[] floats) {
+        this.kind = FLOAT;
+        this.floats = floats;
+        this.size = floats.length;
+    }
+
+    boolean isPacked() {
+        return values == null;
+    }
+
+    @Override
+    public int size() {
+        return values != null ? values.size() : size;
+    }
+
+    @Override
+    public DataValue get(int index) {
+        if (values != null) {
+            return values.get(index);
+        }
+        checkIndex(index, size);
+        switch (kind) {
+            case LONG:
+                return new DataLong(longs[index]);
+            case DOUBLE:
+                return new DataDouble(doubles[index]);
+            default:
+                return new DataFloat(floats[index]);
+        }
+    }
+
+    @Override
+    public DataValue set(int index, DataValue value) {
+        if (values == null && kind != NONE && kindOf(value) == kind) {
+            DataValue previous = get(index);
+            store(index, value);
+            return previous;
+        }
+        inflate();
+        return values.set(index, value);
+    }
+
+    @Override
+    public void add(int index, DataValue value) {
+        if (values == null) {
+            int type = kindOf(value);
+            if (kind == NONE && type != NONE) {
+                kind = type;
+            }
+            if (type != NONE && type == kind) {
+                checkIndex(index, size + 1);
+                ensureCapacity(size + 1);
+                Object array = array();
+                System.arraycopy(array, index, array, index + 1, size - index);
+                store(index, value);
+                size++;
+                modCount++;
+                return;
+            }
+            inflate();
+        }
+        values.add(index, value);
+        modCount++;
+    }
+
+    @Override
+    public DataValue remove(int index) {
+        if (values != null) {
+            modCount++;
+            return values.remove(index);
+        }
+        DataValue previous = get(index);
+        Object array = array();
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        values = null;
+        longs = null;
+        doubles = null;
+        floats = null;
+        kind = NONE;
+        size = 0;
+        modCount++;
+    }
+
+    void addLong(long value) {
+        if (values == null && (kind == NONE || kind == LONG)) {
+            kind = LONG;
+            ensureCapacity(size + 1);
+            longs[size++] = value;
+            modCount++;
+        } else {
+            add(new DataLong(value));
+        }
+    }
+
+    void addDouble(double value) {
+        if (values == null && (kind == NONE || kind == DOUBLE)) {
+            kind = DOUBLE;
+            ensureCapacity(size + 1);
+            doubles[size++] = value;
+            modCount++;
+        } else {
+            add(new DataDouble(value));
+        }
+    }
+
+    void addFloat(float value) {
+        if (values == null && (kind == NONE || kind == FLOAT)) {
+            kind = FLOAT;
+            ensureCapacity(size + 1);
+            floats[size++] = value;
+            modCount++;
+        } else {
+            add(new DataFloat(value));
+        }
+    }
+
+    long[] toLongArray() {
+        if (kind == LONG) {
+            return Arrays.copyOf(longs, size);
+        }
+        long[] array = new long[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = kind == DOUBLE ? (long) doubles[i] : (long) floats[i];
+        }
+        return array;
+    }
+
+    double[] toDoubleArray() {
+        if (kind == DOUBLE) {
+            return Arrays.copyOf(doubles, size);
+        }
+        double[] array = new double[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = kind == LONG ? longs[i] : floats[i];
+        }
+        return array;
+    }
+
+    float[] toFloatArray() {
+        if (kind == FLOAT) {
+            return Arrays.copyOf(floats, size);
+        }
+        float[] array = new float[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = kind == LONG ? longs[i] : (float) doubles[i];
+        }
+        return array;
+    }
+
+    private void store(int index, DataValue value) {
+        switch (kind) {
+            case LONG:
+                longs[index] = value.asLong();
+                break;
+            case DOUBLE:
+                doubles[index] = value.asDouble();
+                break;
+            default:
+                floats[index] = value.asFloat();
+        }
+    }
+
+    private Object array() {
+        switch (kind) {
+            case LONG:
+                return longs;
+            case DOUBLE:
+                return doubles;
+            default:
+                return floats;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        int length = capacity(kind);
+        if (capacity <= length) {
+            return;
+        }
+
+        int grown = Math.max(capacity, Math.max(8, length + (length >> 1)));
+        switch (kind) {
+            case LONG:
+                longs = longs == null ? new long[grown] : Arrays.copyOf(longs, grown);
+                break;
+            case DOUBLE:
+                doubles = doubles == null ? new double[grown] : Arrays.copyOf(doubles, grown);
+                break;
+            default:
+                floats = floats == null ? new float[grown] : Arrays.copyOf(floats, grown);
+        }
+    }
+
+    private int capacity(int kind) {
+        switch (kind) {
+            case LONG:
+                return longs == null ? 0 : longs.length;
+            case DOUBLE:
+                return doubles == null ? 0 : doubles.length;
+            default:
+                return floats == null ? 0 : floats.length;
+        }
+    }
+
+    private void inflate() {
+        if (values != null) {
+            return;
+        }
+        List<DataValue> list = new ArrayList<>(Math.max(16, size));
+        for (int i = 0; i < size; i++) {
+            list.add(get(i));
+        }
+        values = list;
+        longs = null;
+        doubles = null;
+        floats = null;
+    }
+
+    private static int kindOf(DataValue value) {
+        if (value instanceof DataLong) {
+            return LONG;
+        }
+        if (value instanceof DataDouble) {
+            return DOUBLE;
+        }
+        if (value instanceof DataFloat) {
+            return FLOAT;
+        }
+        return NONE;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.terraforged.cereal;
+
+import com.terraforged.cereal.serial.CerealParser;
+import com.terraforged.cereal.serial.DataReader;
+import com.terraforged.cereal.serial.DataWriter;
+import com.terraforged.cereal.serial.SymbolTable;
+import com.terraforged.cereal.value.DataList;
+import com.terraforged.cereal.value.DataObject;
+import com.terraforged.cereal.value.DataValue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class RoundTripTest {
+
+    private static final CerealSpec[] SPECS = {
+            CerealSpec.STANDARD,
+            CerealSpec.COMPACT,
+            new CerealSpec("", ':', ' ', '\''),
+    };
+
+    private static final String[] STRINGS = {
+            "", "a", "abc", "name_1", "Type", "true", "False", "0", "123", "-5", "1.5", "1e5",
+            "a b", "x-y", "\u00e9t\u00e9", "it's", "'", "''", "'x", "a'b'c",
+    };
+
+    @Test
+    public void wordFollowedByUntypedObject() throws IOException {
+        DataList list = new DataList().add("abc").add(new DataObject().add("x", 1));
+        for (CerealSpec spec : SPECS) {
+            assertRoundTrip(list, spec);
+        }
+        Assert.assertEquals("[abc'def'{x 1}]", write(new DataList().add("abc").add("def").add(new DataObject().add("x", 1)), CerealSpec.COMPACT));
+    }
+
+    @Test
+    public void escapeCharInStrings() throws IOException {
+        DataObject object = new DataObject("T");
+        DataList list = new DataList();
+        for (String string : STRINGS) {
+            list.add(string);
+            object.add("k" + object.size(), string);
+        }
+        object.add("list", list);
+        for (CerealSpec spec : SPECS) {
+            assertRoundTrip(object, spec);
+        }
+        Assert.assertEquals("['' '''' 'it''s']", write(new DataList().add("").add("'").add("it's"), CerealSpec.COMPACT));
+    }
+
+    @Test
+    public void compactOutput() throws IOException {
+        DataObject object = new DataObject("T")
+                .add("a", 1)
+                .add("b", new DataList().add(1).add(-2).add(2.5).add("x y").add("w").add(new DataObject("Q").add("z", true)))
+                .add("c", "s")
+                .add("d", new DataObject().add("e", -1));
+        Assert.assertEquals("T{a 1 b[1 -2 2.5'x y'w Q{z true}]c s d{e-1}}", write(object, CerealSpec.COMPACT));
+        assertRoundTrip(object, CerealSpec.COMPACT);
+    }
+
+    @Test
+    public void randomTrees() throws IOException {
+        Random random = new Random(5);
+        for (int i = 0; i < 2000; i++) {
+            DataValue value = random.nextBoolean() ? object(random, 0) : list(random, 0);
+            for (CerealSpec spec : SPECS) {
+                assertRoundTrip(value, spec);
+            }
+        }
+    }
+
+    // reads the written text back through the char, chunked Reader and UTF-8 byte paths of the parser
+    private static void assertRoundTrip(DataValue value, CerealSpec spec) throws IOException {
+        String text = write(value, spec);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        DataValue[] results = {
+                new DataReader(text, spec).read(),
+                new DataReader(new ChunkedReader(text), spec).read(),
+                new DataReader(new CerealParser(ByteBuffer.wrap(bytes), spec, new SymbolTable())).read(),
+        };
+        for (DataValue result : results) {
+            Assert.assertEquals(text, value, result);
+            Assert.assertEquals(text, write(result, spec));
+        }
+    }
+
+    private static String write(DataValue value, CerealSpec spec) throws IOException {
+        StringWriter out = new StringWriter();
+        DataWriter writer = new DataWriter(out, spec);
+        writer.write(value);
+        writer.flush();
+        return out.toString();
+    }
+
+    private static DataValue value(Random random, int depth) {
+        switch (random.nextInt(depth > 3 ? 4 : 6)) {
+            case 0:
+                return DataValue.of(random.nextBoolean());
+            case 1:
+                return DataValue.of(random.nextBoolean() ? random.nextInt(2000) - 1000 : random.nextLong());
+            case 2:
+                return DataValue.of(random.nextInt(3) == 0 ? random.nextDouble() * 1e-7 : random.nextDouble() * 1000 - 500);
+            case 3:
+                return DataValue.of(STRINGS[random.nextInt(STRINGS.length)]);
+            case 4:
+                return object(random, depth + 1);
+            default:
+                return list(random, depth + 1);
+        }
+    }
+
+    private static DataObject object(Random random, int depth) {
+        DataObject object = new DataObject(random.nextBoolean() ? "" : "T" + random.nextInt(3));
+        for (int i = random.nextInt(6); i > 0; i--) {
+            object.add("k" + random.nextInt(20), value(random, depth));
+        }
+        return object;
+    }
+
+    private static DataList list(Random random, int depth) {
+        DataList list = new DataList();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            list.add(value(random, depth));
+        }
+        return list;
+    }
+
+    // hands out the text a few chars at a time so that tokens span the parser's reads
+    private static class ChunkedReader extends Reader {
+
+        private final StringReader reader;
+        private int size = 0;
+
+        private ChunkedReader(String text) {
+            this.reader = new StringReader(text);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            size = (size % 3) + 1;
+            return reader.read(buffer, offset, Math.min(length, size));
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+        }
+    }
+}